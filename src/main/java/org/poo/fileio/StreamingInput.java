@@ -0,0 +1,145 @@
+package org.poo.fileio;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Reads an input file incrementally. The users, exchange rates and merchants are read
+ * when the file is opened, then the commands are parsed one at a time as they are
+ * requested, so they can run while the rest of the file is still being read.
+ * If the commands come before one of the other sections, they are read in full first,
+ * since no command can run without them.
+ */
+public final class StreamingInput implements Closeable {
+    private static final String COMMANDS = "commands";
+
+    private final ObjectMapper objectMapper;
+    private final JsonParser parser;
+    private final Deque<CommandInput> bufferedCommands = new ArrayDeque<>();
+    private UserInput[] users;
+    private ExchangeInput[] exchangeRates;
+    private CommerciantInput[] commerciants;
+    private boolean streaming;
+
+    /**
+     * Opens an input file and reads every section but the commands.
+     *
+     * @param objectMapper the mapper that reads the sections.
+     * @param file         the input file.
+     * @throws IOException if the file cannot be read or is not a valid input.
+     */
+    public StreamingInput(final ObjectMapper objectMapper, final File file) throws IOException {
+        this.objectMapper = objectMapper;
+        this.parser = objectMapper.createParser(file);
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            parser.close();
+            throw new IOException("Input is not a JSON object: " + file);
+        }
+        readSections();
+    }
+
+    /**
+     * Reads the sections of the input until the start of the commands, or until the end
+     * of the input if a section is still missing by then.
+     *
+     * @throws IOException if the input cannot be read.
+     */
+    private void readSections() throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String section = parser.currentName();
+            parser.nextToken();
+            switch (section) {
+                case "users":
+                    users = objectMapper.readValue(parser, UserInput[].class);
+                    break;
+                case "exchangeRates":
+                    exchangeRates = objectMapper.readValue(parser, ExchangeInput[].class);
+                    break;
+                case "commerciants":
+                    commerciants = objectMapper.readValue(parser, CommerciantInput[].class);
+                    break;
+                case COMMANDS:
+                    if (parser.currentToken() != JsonToken.START_ARRAY) {
+                        parser.skipChildren();
+                        break;
+                    }
+                    if (users != null && exchangeRates != null && commerciants != null) {
+                        streaming = true;
+                        return;
+                    }
+                    for (CommandInput command
+                            : objectMapper.readValue(parser, CommandInput[].class)) {
+                        bufferedCommands.add(command);
+                    }
+                    break;
+                default:
+                    parser.skipChildren();
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Reads the next command.
+     *
+     * @return the next command, or null after the last one.
+     * @throws IOException if the input cannot be read.
+     */
+    public CommandInput nextCommand() throws IOException {
+        if (!bufferedCommands.isEmpty()) {
+            return bufferedCommands.poll();
+        }
+        if (!streaming) {
+            return null;
+        }
+        if (parser.nextToken() == JsonToken.START_OBJECT) {
+            return objectMapper.readValue(parser, CommandInput.class);
+        }
+        streaming = false;
+        return null;
+    }
+
+    /**
+     * Gets the users of the input.
+     *
+     * @return the users, or an empty array if the input has none.
+     */
+    public UserInput[] getUsers() {
+        return users == null ? new UserInput[0] : users;
+    }
+
+    /**
+     * Gets the exchange rates of the input.
+     *
+     * @return the exchange rates, or an empty array if the input has none.
+     */
+    public ExchangeInput[] getExchangeRates() {
+        return exchangeRates == null ? new ExchangeInput[0] : exchangeRates;
+    }
+
+    /**
+     * Gets the merchants of the input.
+     *
+     * @return the merchants, or an empty array if the input has none.
+     */
+    public CommerciantInput[] getCommerciants() {
+        return commerciants == null ? new CommerciantInput[0] : commerciants;
+    }
+
+    /**
+     * Closes the input file.
+     *
+     * @throws IOException if the file cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+}
@@ -0,0 +1,260 @@
+package org.poo.main;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.poo.fileio.CommandInput;
+import org.poo.fileio.CommerciantInput;
+import org.poo.fileio.ExchangeInput;
+import org.poo.fileio.StreamingInput;
+import org.poo.fileio.UserInput;
+import org.poo.main.accounts.AccountRegistry;
+import org.poo.main.accounts.AliasDirectory;
+import org.poo.main.cards.CardDirectory;
+import org.poo.main.commands.Command;
+import org.poo.main.commands.CommandFactory;
+import org.poo.main.commandsPhase2.CashbackManager;
+import org.poo.main.commandsPhase2.CashbackStrategy;
+import org.poo.main.output.JsonContext;
+import org.poo.main.output.JsonFileSink;
+import org.poo.main.output.OutputSink;
+import org.poo.main.splitpayments2.SplitPaymentStatus;
+import org.poo.utils.IdGenerator;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Everything one run of the bank works on: its users, merchants, exchange rates,
+ * accounts, cards, aliases and pending split payments, the generators of its IBANs and
+ * card numbers, and the sink its results go to.
+ * Runs share nothing, so the runs of different input files can happen at the same time
+ * and each still gives the same output as when it runs alone.
+ */
+public final class BankContext {
+    private final IdGenerator ids = new IdGenerator();
+    private final Ledger ledger = new Ledger();
+    private final UserDirectory users = new UserDirectory();
+    private final MerchantCatalog merchantCatalog = new MerchantCatalog();
+    private final List<ExchangeRate> exchangeRates = new ArrayList<>();
+    private final CurrencyConverter currencyConverter;
+    private final AccountRegistry accountRegistry = new AccountRegistry();
+    private final CardDirectory cardDirectory = new CardDirectory();
+    private final AliasDirectory aliasDirectory = new AliasDirectory();
+    private final List<SplitPaymentStatus> activeTransactions = new ArrayList<>();
+    private final OutputSink sink;
+
+    /**
+     * Constructs a BankContext from the users, merchants and exchange rates of an input.
+     *
+     * @param input the input, opened.
+     * @param sink  the sink the results of the commands are written to.
+     */
+    public BankContext(final StreamingInput input, final OutputSink sink) {
+        this.sink = sink;
+
+        CashbackManager cashbackManager = new CashbackManager();
+        for (CommerciantInput commerciantInput : input.getCommerciants()) {
+            CashbackStrategy cashbackStrategy =
+                    cashbackManager.getStrategy(commerciantInput.getCashbackStrategy());
+
+            merchantCatalog.register(new Commerciant(
+                    commerciantInput.getCommerciant(),
+                    commerciantInput.getId(),
+                    commerciantInput.getAccount(),
+                    commerciantInput.getType(),
+                    cashbackStrategy
+            ));
+        }
+
+        for (ExchangeInput rate : input.getExchangeRates()) {
+            exchangeRates.add(new ExchangeRate(rate.getFrom(), rate.getTo(), rate.getRate(),
+                    rate.getTimestamp()));
+        }
+        currencyConverter = new CurrencyConverter(exchangeRates);
+
+        for (UserInput userInput : input.getUsers()) {
+            users.register(new User(
+                    userInput.getFirstName(),
+                    userInput.getLastName(),
+                    userInput.getEmail(),
+                    userInput.getBirthDate(),
+                    userInput.getOccupation(),
+                    ledger
+            ));
+        }
+    }
+
+    /**
+     * Runs every command of an input file and writes their results to an output file.
+     *
+     * @param inputFile  the input file.
+     * @param outputPath the output file.
+     * @param compact    whether to write the output without pretty printing.
+     * @throws IOException if a file cannot be read or written.
+     */
+    public static void replay(final File inputFile, final Path outputPath,
+                              final boolean compact) throws IOException {
+        try (StreamingInput input = new StreamingInput(JsonContext.mapper(), inputFile);
+             OutputSink sink = new JsonFileSink(outputPath, compact)) {
+            BankContext context = new BankContext(input, sink);
+            for (CommandInput commandInput = input.nextCommand(); commandInput != null;
+                    commandInput = input.nextCommand()) {
+                context.execute(commandInput);
+            }
+        }
+    }
+
+    /**
+     * Runs a command and writes its results to the sink. A command that fails
+     * results in an error entry holding the message of the failure.
+     *
+     * @param commandInput the command.
+     * @throws IOException if the results cannot be written.
+     */
+    public void execute(final CommandInput commandInput) throws IOException {
+        ArrayNode results = JsonContext.arrayNode();
+        prepare(commandInput, results).run();
+        write(results);
+    }
+
+    /**
+     * Creates a command, to be run later. A command that fails, to be created or to
+     * run, adds an error entry holding the message of the failure to its results.
+     *
+     * @param commandInput the command.
+     * @param results      the array the command adds its results to.
+     * @return the task running the command.
+     */
+    public Runnable prepare(final CommandInput commandInput, final ArrayNode results) {
+        final Command command;
+        try {
+            command = CommandFactory.getCommand(commandInput, this, results);
+        } catch (Exception e) {
+            addError(commandInput, e, results);
+            return () -> { };
+        }
+        return () -> {
+            try {
+                command.execute();
+            } catch (Exception e) {
+                addError(commandInput, e, results);
+            }
+        };
+    }
+
+    /**
+     * Writes the results of a command to the sink.
+     *
+     * @param results the results, in the order the command added them.
+     * @throws IOException if the results cannot be written.
+     */
+    public void write(final ArrayNode results) throws IOException {
+        for (JsonNode result : results) {
+            sink.write(result);
+        }
+    }
+
+    /**
+     * Adds the error entry of a failed command to its results.
+     *
+     * @param commandInput the command.
+     * @param failure      the failure.
+     * @param results      the results of the command.
+     */
+    private static void addError(final CommandInput commandInput, final Exception failure,
+                                 final ArrayNode results) {
+        ObjectNode errorNode = JsonContext.objectNode();
+        errorNode.put("command", commandInput.getCommand());
+        ObjectNode errorOutput = JsonContext.objectNode();
+        errorOutput.put("description", failure.getMessage());
+        errorOutput.put("timestamp", commandInput.getTimestamp());
+        errorNode.set("output", errorOutput);
+        errorNode.put("timestamp", commandInput.getTimestamp());
+        results.add(errorNode);
+    }
+
+    /**
+     * Gets the generator of the IBANs and card numbers of this run.
+     *
+     * @return the generator.
+     */
+    public IdGenerator getIds() {
+        return ids;
+    }
+
+    /**
+     * Gets the users of this run.
+     *
+     * @return the users.
+     */
+    public UserDirectory getUsers() {
+        return users;
+    }
+
+    /**
+     * Gets the merchants of this run.
+     *
+     * @return the merchants.
+     */
+    public MerchantCatalog getMerchantCatalog() {
+        return merchantCatalog;
+    }
+
+    /**
+     * Gets the exchange rates of this run, in input order.
+     *
+     * @return the exchange rates.
+     */
+    public List<ExchangeRate> getExchangeRates() {
+        return exchangeRates;
+    }
+
+    /**
+     * Gets the currency converter of this run.
+     *
+     * @return the converter.
+     */
+    public CurrencyConverter getCurrencyConverter() {
+        return currencyConverter;
+    }
+
+    /**
+     * Gets the accounts of this run.
+     *
+     * @return the account registry.
+     */
+    public AccountRegistry getAccountRegistry() {
+        return accountRegistry;
+    }
+
+    /**
+     * Gets the cards of this run.
+     *
+     * @return the card directory.
+     */
+    public CardDirectory getCardDirectory() {
+        return cardDirectory;
+    }
+
+    /**
+     * Gets the account aliases of this run.
+     *
+     * @return the alias directory.
+     */
+    public AliasDirectory getAliasDirectory() {
+        return aliasDirectory;
+    }
+
+    /**
+     * Gets the split payments of this run still waiting for answers.
+     *
+     * @return the pending split payments.
+     */
+    public List<SplitPaymentStatus> getActiveTransactions() {
+        return activeTransactions;
+    }
+}
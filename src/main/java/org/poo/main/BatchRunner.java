@@ -0,0 +1,130 @@
+package org.poo.main;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Replays many input files at the same time on a bounded pool of threads.
+ * Every file runs in its own {@link BankContext} and writes its own output file, so
+ * each output is exactly what a run of that file alone gives. Each file is replayed in
+ * the chosen {@link ReplayMode}.
+ */
+public final class BatchRunner {
+    /**
+     * for coding style
+     */
+    private BatchRunner() {
+    }
+
+    /**
+     * Replays every JSON file of a directory into a directory of outputs with the same
+     * file names.
+     *
+     * @param args the input directory, the output directory and, optionally, the number
+     *             of threads, which defaults to the number of processors, and the name of
+     *             the replay mode, which defaults to sequential
+     * @throws IOException if a file cannot be read or written
+     */
+    public static void main(final String[] args) throws IOException {
+        if (args.length < 2) {
+            throw new IllegalArgumentException(
+                    "Usage: BatchRunner <input dir> <output dir> [threads] [mode]");
+        }
+        File[] files = Objects.requireNonNull(new File(args[0]).listFiles(
+                (dir, name) -> name.endsWith(".json")), "Not a directory: " + args[0]);
+        Arrays.sort(files, Comparator.comparing(File::getName));
+        int threads = args.length > 2
+                ? Integer.parseInt(args[2])
+                : Runtime.getRuntime().availableProcessors();
+        ReplayMode mode = args.length > 3
+                ? ReplayMode.fromName(args[3])
+                : ReplayMode.SEQUENTIAL;
+        run(Arrays.asList(files), Paths.get(args[1]), threads, false, mode);
+    }
+
+    /**
+     * Replays input files, each into an output file with the same name.
+     *
+     * @param inputs          the input files.
+     * @param outputDirectory the directory of the output files, created if missing.
+     * @param threads         the most files replayed at the same time.
+     * @param compact         whether to write the outputs without pretty printing.
+     * @param mode            how each file is replayed.
+     * @throws IOException if a file cannot be read or written; the other files are
+     *                     still replayed.
+     */
+    public static void run(final List<File> inputs, final Path outputDirectory,
+                           final int threads, final boolean compact,
+                           final ReplayMode mode) throws IOException {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Invalid number of threads: " + threads);
+        }
+        Files.createDirectories(outputDirectory);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Void>> runs = new ArrayList<>(inputs.size());
+            for (File input : inputs) {
+                Path output = outputDirectory.resolve(input.getName());
+                runs.add(pool.submit(() -> {
+                    mode.replay(input, output, compact);
+                    return null;
+                }));
+            }
+            IOException failure = null;
+            for (Future<Void> run : runs) {
+                try {
+                    await(run);
+                } catch (IOException e) {
+                    if (failure == null) {
+                        failure = e;
+                    } else {
+                        failure.addSuppressed(e);
+                    }
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Waits for the replay of a file to finish.
+     *
+     * @param run the replay.
+     * @throws IOException if the replay failed to read or write a file, or the wait
+     *                     was interrupted.
+     */
+    private static void await(final Future<Void> run) throws IOException {
+        try {
+            run.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while replaying");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+}
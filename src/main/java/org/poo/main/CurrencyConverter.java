@@ -5,18 +5,57 @@ import java.util.List;
 /**
  * Utility class for currency conversion.
  * Converts an amount from one currency to another using a graph of exchange rates.
+ * By default every rate is precomputed once into a {@link RateTable};
+ * the graph can also be searched on each call instead.
+ * Rate changes are published as new, immutable tables, so a conversion never takes
+ * a lock and never sees a partially updated table.
+ * In the precomputed mode every rate keeps its effective timestamp, and {@link #at(int)}
+ * gives a read-only converter for the rates in effect at a given timestamp.
  * This class is not designed for extension and should be treated as final.
  */
 public final class CurrencyConverter {
     private final CurrencyGraph currencyGraph;
+    private final RateHistory rateHistory;
+    private volatile RateTable rateTable;
 
     /**
-     * Constructs a CurrencyConverter with the specified exchange rates.
+     * Constructs a CurrencyConverter with the specified exchange rates,
+     * precomputing the rate between every pair of currencies.
      *
      * @param exchangeRates the list of exchange rates to initialize the currency graph
      */
     public CurrencyConverter(final List<ExchangeRate> exchangeRates) {
-        this.currencyGraph = new CurrencyGraph(exchangeRates);
+        this(exchangeRates, true);
+    }
+
+    /**
+     * Constructs a CurrencyConverter with the specified exchange rates.
+     *
+     * @param exchangeRates the list of exchange rates to initialize the currency graph
+     * @param precompute    whether to precompute all rates or search the graph per call
+     */
+    public CurrencyConverter(final List<ExchangeRate> exchangeRates, final boolean precompute) {
+        if (precompute) {
+            this.rateHistory = new RateHistory(exchangeRates);
+            this.currencyGraph = new CurrencyGraph(rateHistory.getLatestRates());
+            this.rateTable = currencyGraph.buildRateTable();
+            rateHistory.pinLatest(new CurrencyConverter(rateTable));
+        } else {
+            this.rateHistory = null;
+            this.currencyGraph = new CurrencyGraph(exchangeRates);
+            this.rateTable = null;
+        }
+    }
+
+    /**
+     * Constructs a read-only CurrencyConverter over a fixed rate table.
+     *
+     * @param rateTable the rate table to convert with
+     */
+    CurrencyConverter(final RateTable rateTable) {
+        this.currencyGraph = null;
+        this.rateHistory = null;
+        this.rateTable = rateTable;
     }
 
     /**
@@ -29,7 +68,117 @@ public final class CurrencyConverter {
      * @throws IllegalArgumentException if the conversion rate is not found
      */
     public double convert(final double amount, final String fromCurrency, final String toCurrency) {
-        double conversionRate = currencyGraph.getConversionRate(fromCurrency, toCurrency);
-        return amount * conversionRate;
+        return amount * getRate(fromCurrency, toCurrency);
+    }
+
+    /**
+     * Converts an amount of money to another currency, rounding to the nearest minor unit.
+     *
+     * @param amount     the amount to convert
+     * @param toCurrency the target currency
+     * @return the converted amount, or the same amount if it is already in that currency
+     * @throws IllegalArgumentException if the conversion rate is not found
+     */
+    public Money convert(final Money amount, final String toCurrency) {
+        if (amount.isIn(toCurrency)) {
+            return amount;
+        }
+        return amount.convert(getRate(amount.getCurrency(), toCurrency), toCurrency);
+    }
+
+    /**
+     * Retrieves the conversion rate from one currency to another.
+     *
+     * @param fromCurrency the source currency
+     * @param toCurrency   the target currency
+     * @return the conversion rate from source to target currency
+     * @throws IllegalArgumentException if the conversion rate is not found
+     */
+    private double getRate(final String fromCurrency, final String toCurrency) {
+        RateTable table = rateTable;
+        return table != null
+                ? table.getRate(fromCurrency, toCurrency)
+                : currencyGraph.getConversionRate(fromCurrency, toCurrency);
+    }
+
+    /**
+     * Converts an amount using the exchange rates in effect at a timestamp.
+     *
+     * @param amount       the amount to convert
+     * @param fromCurrency the source currency
+     * @param toCurrency   the target currency
+     * @param atTimestamp  the timestamp whose rates are used
+     * @return the converted amount
+     * @throws IllegalArgumentException if the conversion rate is not found
+     */
+    public double convert(final double amount, final String fromCurrency,
+                          final String toCurrency, final int atTimestamp) {
+        return at(atTimestamp).convert(amount, fromCurrency, toCurrency);
+    }
+
+    /**
+     * Gets a read-only converter for the exchange rates in effect at a timestamp:
+     * for every pair, the newest rate that took effect at or before it. Timestamps before
+     * the first rate use the earliest rates. In the graph search mode, and for a converter
+     * that is already read-only, this converter itself is returned.
+     *
+     * @param timestamp the timestamp
+     * @return the converter for that timestamp
+     */
+    public CurrencyConverter at(final int timestamp) {
+        if (rateHistory == null) {
+            return this;
+        }
+        final CurrencyConverter converter = rateHistory.converterAt(timestamp);
+        return converter != null ? converter : this;
+    }
+
+    /**
+     * Applies a change of exchange rate, in effect from the given timestamp. In the
+     * precomputed mode the rate is recorded as a new version of its pair; if it is the
+     * newest version, the affected rows are recomputed and published as a new version of
+     * the rate table. In the graph search mode, the graph is updated in place and callers
+     * must not convert concurrently.
+     *
+     * @param fromCurrency the source currency
+     * @param toCurrency   the target currency
+     * @param rate         the new conversion rate from source to target currency
+     * @param timestamp    the timestamp from which the rate is in effect
+     * @throws IllegalArgumentException if the rate is not positive or the currencies match
+     * @throws UnsupportedOperationException if this converter is read-only
+     */
+    public synchronized void updateExchangeRate(final String fromCurrency,
+                                                final String toCurrency,
+                                                final double rate,
+                                                final int timestamp) {
+        if (currencyGraph == null) {
+            throw new UnsupportedOperationException("Cannot update a read-only converter");
+        }
+        if (!(rate > 0) || Double.isInfinite(rate)) {
+            throw new IllegalArgumentException("Invalid exchange rate: " + rate);
+        }
+        if (fromCurrency.equals(toCurrency)) {
+            throw new IllegalArgumentException("Cannot set an exchange rate from "
+                    + fromCurrency + " to itself");
+        }
+        if (rateHistory == null) {
+            currencyGraph.addExchangeRate(fromCurrency, toCurrency, rate);
+            return;
+        }
+        if (rateHistory.isNewest(fromCurrency, toCurrency, timestamp)) {
+            rateTable = currencyGraph.updateExchangeRate(rateTable, fromCurrency,
+                    toCurrency, rate);
+        }
+        rateHistory.add(new ExchangeRate(fromCurrency, toCurrency, rate, timestamp),
+                new CurrencyConverter(rateTable));
+    }
+
+    /**
+     * Gets the rate table currently in use, or null in the graph search mode.
+     *
+     * @return the current rate table snapshot
+     */
+    public RateTable getRateTable() {
+        return rateTable;
     }
 }
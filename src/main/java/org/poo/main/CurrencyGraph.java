@@ -7,7 +7,11 @@ import java.util.*;
  */
 public class CurrencyGraph {
 
+    /** Target id making {@link #computeRatesFrom} walk every reachable currency. */
+    private static final int NO_TARGET = -1;
+
     private final Map<String, Map<String, Double>> graph = new HashMap<>();
+    private final Map<String, Integer> currencyIds = new HashMap<>();
 
     /**
      * Constructs a CurrencyGraph using a list of exchange rates.
@@ -30,6 +34,8 @@ public class CurrencyGraph {
     public void addExchangeRate(final String from, final String to, final double rate) {
         graph.putIfAbsent(from, new HashMap<>());
         graph.putIfAbsent(to, new HashMap<>());
+        currencyIds.putIfAbsent(from, currencyIds.size());
+        currencyIds.putIfAbsent(to, currencyIds.size());
 
         graph.get(from).put(to, rate);
         graph.get(to).put(from, 1.0 / rate);
@@ -47,35 +53,147 @@ public class CurrencyGraph {
         if (fromCurrency.equals(toCurrency)) {
             return 1.0;
         }
-        final Queue<String> queue = new LinkedList<>();
-        final Map<String, Double> rates = new HashMap<>();
-        final Set<String> visited = new HashSet<>();
+        final Integer toId = currencyIds.get(toCurrency);
+        if (toId != null && graph.containsKey(fromCurrency)) {
+            final double[] rates = new double[currencyIds.size()];
+            computeRatesFrom(fromCurrency, rates, null, toId);
+            if (!Double.isNaN(rates[toId])) {
+                return rates[toId];
+            }
+        }
+        throw new IllegalArgumentException("No conversion path found from "
+                + fromCurrency + " to " + toCurrency);
+    }
+
+    /**
+     * Builds the dense table of conversion rates between every pair of known currencies.
+     * Each row holds the rates found by a breadth-first walk from its source currency,
+     * so the table agrees with {@link #getConversionRate(String, String)}.
+     *
+     * @return the precomputed rate table, at version 0
+     */
+    public RateTable buildRateTable() {
+        final int size = currencyIds.size();
+        final double[][] rates = new double[size][];
+        final int[][] parents = new int[size][];
+        for (final Map.Entry<String, Integer> currency : currencyIds.entrySet()) {
+            final int id = currency.getValue();
+            rates[id] = new double[size];
+            parents[id] = new int[size];
+            computeRatesFrom(currency.getKey(), rates[id], parents[id], NO_TARGET);
+        }
+        return new RateTable(currencyIds, rates, parents, 0);
+    }
+
+    /**
+     * Applies a rate change to the graph and derives the next version of a rate table.
+     * Only the rows whose conversions can depend on the changed edge are recomputed:
+     * for an existing edge, the rows whose breadth-first tree uses it; for a new edge,
+     * the rows that reach either currency. All other rows are shared with the
+     * previous table, which is left untouched.
+     *
+     * @param current the table built from the graph before this change
+     * @param from    the source currency
+     * @param to      the target currency
+     * @param rate    the new conversion rate from source to target currency
+     * @return the rate table reflecting the change
+     */
+    public RateTable updateExchangeRate(final RateTable current, final String from,
+                                        final String to, final double rate) {
+        final boolean existingEdge = graph.containsKey(from) && graph.get(from).containsKey(to);
+        addExchangeRate(from, to, rate);
+
+        final int size = currencyIds.size();
+        final int fromId = currencyIds.get(from);
+        final int toId = currencyIds.get(to);
+        final double[][] rates = Arrays.copyOf(current.getRows(), size);
+        final int[][] parents = Arrays.copyOf(current.getParents(), size);
+
+        for (final Map.Entry<String, Integer> currency : currencyIds.entrySet()) {
+            final int id = currency.getValue();
+            final boolean affected;
+            if (rates[id] == null) {
+                affected = true;
+            } else if (existingEdge) {
+                affected = isParent(parents[id], fromId, toId)
+                        || isParent(parents[id], toId, fromId);
+            } else {
+                affected = reaches(rates[id], fromId) || reaches(rates[id], toId);
+            }
+            if (affected) {
+                rates[id] = new double[size];
+                parents[id] = new int[size];
+                computeRatesFrom(currency.getKey(), rates[id], parents[id], NO_TARGET);
+            }
+        }
+        return new RateTable(currencyIds, rates, parents, current.getVersion() + 1);
+    }
+
+    /**
+     * Checks whether a breadth-first tree reaches a currency through the given parent.
+     *
+     * @param row      the breadth-first tree, as a parent per currency id
+     * @param parentId the expected parent currency id
+     * @param id       the child currency id
+     * @return true if the tree uses the edge from parent to child
+     */
+    private static boolean isParent(final int[] row, final int parentId, final int id) {
+        return id < row.length && row[id] == parentId;
+    }
+
+    /**
+     * Checks whether a row of rates has a conversion to the given currency.
+     *
+     * @param row the row of rates
+     * @param id  the target currency id
+     * @return true if the row reaches the currency
+     */
+    private static boolean reaches(final double[] row, final int id) {
+        return id < row.length && !Double.isNaN(row[id]);
+    }
+
+    /**
+     * Walks the graph breadth-first from a currency and records the rate to every
+     * currency reached, together with the currency it was reached from, indexed by
+     * currency id. Unreachable currencies get a NaN rate and a -1 parent.
+     * The walk stops as soon as the target currency is reached, leaving the currencies
+     * not reached yet with a NaN rate.
+     *
+     * @param fromCurrency the source currency, which must be part of the graph
+     * @param rates        the array receiving the rates
+     * @param parents      the array receiving the breadth-first tree, or null
+     * @param targetId     the id of the currency to stop at, or {@link #NO_TARGET}
+     */
+    private void computeRatesFrom(final String fromCurrency, final double[] rates,
+                                  final int[] parents, final int targetId) {
+        Arrays.fill(rates, Double.NaN);
+        if (parents != null) {
+            Arrays.fill(parents, -1);
+        }
+        final Queue<String> queue = new ArrayDeque<>();
 
         queue.add(fromCurrency);
-        rates.put(fromCurrency, 1.0);
-        visited.add(fromCurrency);
+        rates[currencyIds.get(fromCurrency)] = 1.0;
 
         while (!queue.isEmpty()) {
             final String current = queue.poll();
-            final double currentRate = rates.get(current);
-
-            for (final Map.Entry<String, Double> neighbor : graph.getOrDefault(
-                    current, Collections.emptyMap()).entrySet()) {
-                final String neighborCurrency = neighbor.getKey();
-                final double edgeRate = neighbor.getValue();
+            final int currentId = currencyIds.get(current);
+            final double currentRate = rates[currentId];
 
-                if (!visited.contains(neighborCurrency)) {
-                    rates.put(neighborCurrency, currentRate * edgeRate);
-                    visited.add(neighborCurrency);
-                    queue.add(neighborCurrency);
+            for (final Map.Entry<String, Double> neighbor : graph.get(current).entrySet()) {
+                final int neighborId = currencyIds.get(neighbor.getKey());
 
-                    if (neighborCurrency.equals(toCurrency)) {
-                        return rates.get(neighborCurrency);
+                if (Double.isNaN(rates[neighborId])) {
+                    rates[neighborId] = currentRate * neighbor.getValue();
+                    if (parents != null) {
+                        parents[neighborId] = currentId;
+                    }
+                    if (neighborId == targetId) {
+                        return;
                     }
+                    queue.add(neighbor.getKey());
                 }
             }
         }
-        throw new IllegalArgumentException("No conversion path found from "
-                + fromCurrency + " to " + toCurrency);
     }
 }
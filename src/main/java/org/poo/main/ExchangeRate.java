@@ -2,25 +2,41 @@ package org.poo.main;
 
 /**
  * Represents an exchange rate between two currencies.
- * Includes the source currency, target currency, and the exchange rate.
+ * Includes the source currency, target currency, the exchange rate
+ * and the timestamp from which the rate is in effect.
  */
 public final class ExchangeRate {
 
     private final String fromCurrency;
     private final String toCurrency;
     private final double rate;
+    private final int timestamp;
 
     /**
-     * Constructs an ExchangeRate object.
+     * Constructs an ExchangeRate object in effect from timestamp 0.
      *
      * @param fromCurrency the currency being converted from.
      * @param toCurrency   the currency being converted to.
      * @param rate         the exchange rate value.
      */
     public ExchangeRate(final String fromCurrency, final String toCurrency, final double rate) {
+        this(fromCurrency, toCurrency, rate, 0);
+    }
+
+    /**
+     * Constructs an ExchangeRate object.
+     *
+     * @param fromCurrency the currency being converted from.
+     * @param toCurrency   the currency being converted to.
+     * @param rate         the exchange rate value.
+     * @param timestamp    the timestamp from which the rate is in effect.
+     */
+    public ExchangeRate(final String fromCurrency, final String toCurrency, final double rate,
+                        final int timestamp) {
         this.fromCurrency = fromCurrency;
         this.toCurrency = toCurrency;
         this.rate = rate;
+        this.timestamp = timestamp;
     }
 
     /**
@@ -49,4 +65,13 @@ public final class ExchangeRate {
     public double getRate() {
         return rate;
     }
+
+    /**
+     * Gets the timestamp from which the rate is in effect.
+     *
+     * @return the effective timestamp.
+     */
+    public int getTimestamp() {
+        return timestamp;
+    }
 }
@@ -0,0 +1,56 @@
+package org.poo.main;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The bank's append-only ledger: every transaction recorded during a run, each
+ * stored once and identified by its position. User and account histories only hold
+ * these integer ids, so a transaction shared by a user and an account is not stored
+ * twice, and the ledger is the single place to persist from.
+ * Commands on disjoint accounts may record at the same time, so access is synchronized.
+ */
+public final class Ledger {
+    private final List<Transaction> records = new ArrayList<>();
+
+    /**
+     * Records a transaction, unless it is already in the ledger.
+     *
+     * @param transaction the transaction to record.
+     * @return the id of the transaction in the ledger.
+     * @throws IllegalArgumentException if the transaction belongs to another ledger.
+     */
+    public synchronized int record(final Transaction transaction) {
+        int id = transaction.getLedgerId();
+        if (id != Transaction.UNRECORDED) {
+            if (id >= records.size() || records.get(id) != transaction) {
+                throw new IllegalArgumentException("Transaction belongs to another ledger");
+            }
+            return id;
+        }
+        id = records.size();
+        records.add(transaction);
+        transaction.assignLedgerId(id);
+        return id;
+    }
+
+    /**
+     * Retrieves a recorded transaction.
+     *
+     * @param id the id of the transaction.
+     * @return the transaction.
+     * @throws IndexOutOfBoundsException if no transaction has that id.
+     */
+    public synchronized Transaction get(final int id) {
+        return records.get(id);
+    }
+
+    /**
+     * Gets the number of transactions recorded.
+     *
+     * @return the number of transactions.
+     */
+    public synchronized int size() {
+        return records.size();
+    }
+}
@@ -1,20 +1,7 @@
 package org.poo.main;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.ObjectWriter;
-import com.fasterxml.jackson.databind.node.ArrayNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.poo.checker.Checker;
 import org.poo.checker.CheckerConstants;
-import org.poo.fileio.*;
-import org.poo.main.commands.Command;
-import org.poo.main.commands.CommandFactory;
-import org.poo.main.commandsPhase2.CashbackStrategy;
-import org.poo.main.commandsPhase2.NoCashbackStrategy;
-import org.poo.main.commandsPhase2.NrOfTransactionsCashbackStrategy;
-import org.poo.main.commandsPhase2.SpendingThresholdCashbackStrategy;
-import org.poo.main.splitpayments2.SplitPaymentStatus;
-import org.poo.utils.Utils;
 
 import java.io.File;
 import java.io.IOException;
@@ -76,94 +63,23 @@ public final class Main {
      */
     public static void action(final String filePath1,
                               final String filePath2) throws IOException {
-        ObjectMapper objectMapper = new ObjectMapper();
-        File file = new File(CheckerConstants.TESTS_PATH + filePath1);
-        ObjectInput inputData = objectMapper.readValue(file, ObjectInput.class);
-
-
-        UserInput[] userInputs = inputData.getUsers();
-        CommandInput[] commands = inputData.getCommands();
-        CommerciantInput[] commerciantInputs = inputData.getCommerciants();
-        List<Commerciant> commerciants = new ArrayList<>();
-        for (CommerciantInput commerciantInput : commerciantInputs) {
-            CashbackStrategy cashbackStrategy;
-
-            switch (commerciantInput.getCashbackStrategy()) {
-                case "nrOfTransactions":
-                    cashbackStrategy = new NrOfTransactionsCashbackStrategy();
-                    break;
-                case "spendingThreshold":
-                    cashbackStrategy = new SpendingThresholdCashbackStrategy();
-                    break;
-                default:
-                    cashbackStrategy = new NoCashbackStrategy();
-                    break;
-            }
-
-            Commerciant commerciant = new Commerciant(
-                    commerciantInput.getCommerciant(),
-                    commerciantInput.getId(),
-                    commerciantInput.getAccount(),
-                    commerciantInput.getType(),
-                    cashbackStrategy // Setează direct strategia
-            );
-
-            commerciants.add(commerciant);
-        }
-
-
-        List<ExchangeRate> exchangeRates = new ArrayList<>();
-        for (ExchangeInput rate : inputData.getExchangeRates()) {
-            exchangeRates.add(new ExchangeRate(rate.getFrom(), rate.getTo(), rate.getRate()));
-        }
-        CurrencyConverter currencyConverter = new CurrencyConverter(exchangeRates);
-
-        List<User> users = new ArrayList<>();
-        for (UserInput userInput : userInputs) {
-            User user = new User(
-                    userInput.getFirstName(),
-                    userInput.getLastName(),
-                    userInput.getEmail(),
-                    userInput.getBirthDate(),
-                    userInput.getOccupation()
-            );
-
-            users.add(user);
-        }
-
-        ArrayNode output = objectMapper.createArrayNode();
-        List<SplitPaymentStatus> activeTransactions = new ArrayList<>();
-
-        for (CommandInput commandInput : commands) {
-            try {
-                Command command = CommandFactory.
-                        getCommand(commandInput,
-                                exchangeRates, users,
-                                currencyConverter, commerciants,
-                                output, activeTransactions);
-                command.execute();
-
-                ObjectNode successNode = objectMapper.createObjectNode();
-                successNode.put("status", "success");
-                successNode.put("message",
-                        commandInput.getCommand() + " executed successfully.");
-            } catch (Exception e) {
-
-                ObjectNode errorNode = objectMapper.createObjectNode();
-                errorNode.put("command", commandInput.getCommand());
-                ObjectNode errorOutput = objectMapper.createObjectNode();
-                errorOutput.put("description", e.getMessage());
-                errorOutput.put("timestamp", commandInput.getTimestamp());
-                errorNode.set("output", errorOutput);
-                errorNode.put("timestamp", commandInput.getTimestamp());
-                output.add(errorNode);
-
-            }
-        }
+        action(filePath1, filePath2, false);
+    }
 
-        ObjectWriter objectWriter = objectMapper.writerWithDefaultPrettyPrinter();
-        objectWriter.writeValue(new File(filePath2), output);
-        Utils.resetRandom();
+    /**
+     * Runs the commands of an input file, streaming the result of each command to the
+     * output file as soon as the command finishes.
+     *
+     * @param filePath1 for input file
+     * @param filePath2 for output file
+     * @param compact   whether to write the output without pretty printing
+     * @throws IOException in case of exceptions to reading / writing
+     */
+    public static void action(final String filePath1,
+                              final String filePath2,
+                              final boolean compact) throws IOException {
+        BankContext.replay(new File(CheckerConstants.TESTS_PATH + filePath1),
+                Paths.get(filePath2), compact);
     }
 
     /**
@@ -0,0 +1,47 @@
+package org.poo.main;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Bank-wide index of the merchants, keyed by name and by account IBAN.
+ * Built once when the merchants are loaded; each merchant already carries its shared
+ * cashback strategy, so a payment resolves both in a single lookup.
+ * If two merchants share a name or an IBAN, the first one registered wins.
+ */
+public final class MerchantCatalog {
+    private final Map<String, Commerciant> commerciantsByName = new HashMap<>();
+    private final Map<String, Commerciant> commerciantsByAccount = new HashMap<>();
+
+    /**
+     * Registers a merchant under its name and account IBAN.
+     *
+     * @param commerciant the merchant to register.
+     */
+    public void register(final Commerciant commerciant) {
+        commerciantsByName.putIfAbsent(commerciant.getName(), commerciant);
+        if (commerciant.getAccount() != null) {
+            commerciantsByAccount.putIfAbsent(commerciant.getAccount(), commerciant);
+        }
+    }
+
+    /**
+     * Retrieves the merchant with the given name.
+     *
+     * @param name the merchant name to look up.
+     * @return the matching merchant, or null if no such merchant exists.
+     */
+    public Commerciant findByName(final String name) {
+        return commerciantsByName.get(name);
+    }
+
+    /**
+     * Retrieves the merchant that owns the given account.
+     *
+     * @param iban the account IBAN to look up.
+     * @return the matching merchant, or null if no merchant owns that account.
+     */
+    public Commerciant findByAccount(final String iban) {
+        return commerciantsByAccount.get(iban);
+    }
+}
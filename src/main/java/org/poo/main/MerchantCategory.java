@@ -0,0 +1,48 @@
+package org.poo.main;
+
+/**
+ * The merchant categories that count towards transaction-based cashback.
+ * Ordinals index the per-category counters of a cashback ledger.
+ */
+public enum MerchantCategory {
+    FOOD("Food"),
+    CLOTHES("Clothes"),
+    TECH("Tech");
+
+    private static final MerchantCategory[] VALUES = values();
+
+    private final String name;
+
+    /**
+     * Constructs a MerchantCategory.
+     *
+     * @param name the name of the category, as used in the input
+     */
+    MerchantCategory(final String name) {
+        this.name = name;
+    }
+
+    /**
+     * Gets the name of the category, as used in the input.
+     *
+     * @return the category name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Finds a category by its name.
+     *
+     * @param name the category name
+     * @return the matching category, or null if no category has that name
+     */
+    public static MerchantCategory find(final String name) {
+        for (final MerchantCategory category : VALUES) {
+            if (category.name.equals(name)) {
+                return category;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,279 @@
+package org.poo.main;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Immutable amount of money in fixed point: a whole number of minor units together with
+ * an interned currency id. A minor unit is 10^-8 of the major unit. Only sums and
+ * differences are exact. Products, divisions and conversions are computed in double
+ * precision and then rounded to the nearest minor unit, so they carry the error of the
+ * double product, which can reach a minor unit once results pass tens of millions of
+ * major units.
+ * An amount may carry no currency, for records that never stated one.
+ */
+public final class Money implements Comparable<Money> {
+    /** Number of decimal places kept. */
+    public static final int SCALE = 8;
+
+    private static final double UNITS_PER_MAJOR = 1e8;
+    private static final int NO_CURRENCY = -1;
+    private static final int HASH_MULTIPLIER = 31;
+    private static final Map<String, Integer> CURRENCY_IDS = new ConcurrentHashMap<>();
+    private static final List<String> CURRENCIES = new CopyOnWriteArrayList<>();
+
+    private final long units;
+    private final int currencyId;
+
+    /**
+     * Constructs an amount.
+     *
+     * @param units      the amount in minor units
+     * @param currencyId the interned currency id
+     */
+    private Money(final long units, final int currencyId) {
+        this.units = units;
+        this.currencyId = currencyId;
+    }
+
+    /**
+     * Creates an amount from a decimal value, rounded to the nearest minor unit.
+     *
+     * @param amount   the amount in major units
+     * @param currency the currency, or null if none
+     * @return the amount
+     * @throws IllegalArgumentException if the amount is not finite or out of range
+     */
+    public static Money of(final double amount, final String currency) {
+        return new Money(toUnits(amount * UNITS_PER_MAJOR), idOf(currency));
+    }
+
+    /**
+     * Creates an amount from a number of minor units.
+     *
+     * @param units    the amount in minor units
+     * @param currency the currency, or null if none
+     * @return the amount
+     */
+    public static Money ofUnits(final long units, final String currency) {
+        return new Money(units, idOf(currency));
+    }
+
+    /**
+     * Creates a zero amount.
+     *
+     * @param currency the currency, or null if none
+     * @return the zero amount
+     */
+    public static Money zero(final String currency) {
+        return new Money(0, idOf(currency));
+    }
+
+    /**
+     * Gets the amount in minor units.
+     *
+     * @return the number of minor units
+     */
+    public long getUnits() {
+        return units;
+    }
+
+    /**
+     * Gets the currency of the amount.
+     *
+     * @return the currency, or null if none
+     */
+    public String getCurrency() {
+        return currencyId == NO_CURRENCY ? null : CURRENCIES.get(currencyId);
+    }
+
+    /**
+     * Checks whether the amount is in the given currency.
+     *
+     * @param currency the currency, or null for none
+     * @return true if the currencies match
+     */
+    public boolean isIn(final String currency) {
+        return currencyId == idOf(currency);
+    }
+
+    /**
+     * Adds another amount in the same currency.
+     *
+     * @param other the amount to add
+     * @return the sum
+     * @throws IllegalArgumentException if the currencies differ
+     * @throws ArithmeticException if the sum overflows
+     */
+    public Money plus(final Money other) {
+        checkSameCurrency(other);
+        return new Money(Math.addExact(units, other.units), currencyId);
+    }
+
+    /**
+     * Subtracts another amount in the same currency.
+     *
+     * @param other the amount to subtract
+     * @return the difference
+     * @throws IllegalArgumentException if the currencies differ
+     * @throws ArithmeticException if the difference overflows
+     */
+    public Money minus(final Money other) {
+        checkSameCurrency(other);
+        return new Money(Math.subtractExact(units, other.units), currencyId);
+    }
+
+    /**
+     * Multiplies the amount by a factor in double precision, rounding to the nearest
+     * minor unit.
+     *
+     * @param factor the factor
+     * @return the product, in the same currency
+     */
+    public Money times(final double factor) {
+        return new Money(toUnits(units * factor), currencyId);
+    }
+
+    /**
+     * Divides the amount into equal parts in double precision, rounding to the nearest
+     * minor unit.
+     *
+     * @param parts the number of parts
+     * @return the size of one part, in the same currency
+     */
+    public Money dividedBy(final int parts) {
+        return new Money(toUnits((double) units / parts), currencyId);
+    }
+
+    /**
+     * Converts the amount to another currency at the given rate, in double precision,
+     * rounding to the nearest minor unit.
+     *
+     * @param rate     the rate from this currency to the target currency
+     * @param currency the target currency
+     * @return the converted amount
+     */
+    public Money convert(final double rate, final String currency) {
+        return new Money(toUnits(units * rate), idOf(currency));
+    }
+
+    /**
+     * Checks whether the amount is below zero.
+     *
+     * @return true if the amount is negative
+     */
+    public boolean isNegative() {
+        return units < 0;
+    }
+
+    /**
+     * Checks whether the amount is zero.
+     *
+     * @return true if the amount is zero
+     */
+    public boolean isZero() {
+        return units == 0;
+    }
+
+    /**
+     * Gets the amount as a decimal value, for output.
+     *
+     * @return the amount in major units
+     */
+    public double toDouble() {
+        return units / UNITS_PER_MAJOR;
+    }
+
+    /**
+     * Compares to another amount in the same currency.
+     *
+     * @param other the amount to compare to
+     * @return a negative number, zero or a positive number as this amount is
+     *         less than, equal to or greater than the other
+     * @throws IllegalArgumentException if the currencies differ
+     */
+    @Override
+    public int compareTo(final Money other) {
+        checkSameCurrency(other);
+        return Long.compare(units, other.units);
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Money other)) {
+            return false;
+        }
+        return units == other.units && currencyId == other.currencyId;
+    }
+
+    @Override
+    public int hashCode() {
+        return HASH_MULTIPLIER * Long.hashCode(units) + currencyId;
+    }
+
+    @Override
+    public String toString() {
+        final String currency = getCurrency();
+        return currency == null ? String.valueOf(toDouble()) : toDouble() + " " + currency;
+    }
+
+    /**
+     * Checks that another amount is in the same currency.
+     *
+     * @param other the other amount
+     * @throws IllegalArgumentException if the currencies differ
+     */
+    private void checkSameCurrency(final Money other) {
+        if (currencyId != other.currencyId) {
+            throw new IllegalArgumentException("Currency mismatch: "
+                    + getCurrency() + " and " + other.getCurrency());
+        }
+    }
+
+    /**
+     * Rounds a scaled amount to a whole number of minor units.
+     *
+     * @param scaled the amount in minor units
+     * @return the rounded amount
+     * @throws IllegalArgumentException if the amount is not finite or out of range
+     */
+    private static long toUnits(final double scaled) {
+        if (!Double.isFinite(scaled) || Math.abs(scaled) >= Long.MAX_VALUE) {
+            throw new IllegalArgumentException("Amount out of range: "
+                    + scaled / UNITS_PER_MAJOR);
+        }
+        return Math.round(scaled);
+    }
+
+    /**
+     * Gets the interned id of a currency, interning it on first use.
+     *
+     * @param currency the currency, or null
+     * @return the currency id
+     */
+    private static int idOf(final String currency) {
+        if (currency == null) {
+            return NO_CURRENCY;
+        }
+        final Integer id = CURRENCY_IDS.get(currency);
+        return id != null ? id : intern(currency);
+    }
+
+    /**
+     * Assigns the next id to a currency not yet interned.
+     *
+     * @param currency the currency
+     * @return the currency id
+     */
+    private static synchronized int intern(final String currency) {
+        return CURRENCY_IDS.computeIfAbsent(currency, key -> {
+            CURRENCIES.add(key);
+            return CURRENCIES.size() - 1;
+        });
+    }
+}
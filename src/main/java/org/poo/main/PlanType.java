@@ -0,0 +1,64 @@
+package org.poo.main;
+
+/**
+ * The service plans a user can hold, from the lowest tier to the highest.
+ * The declaration order is the upgrade order, so ordinals index fee and rate tables.
+ */
+public enum PlanType {
+    STANDARD("standard"),
+    STUDENT("student"),
+    SILVER("silver"),
+    GOLD("gold");
+
+    private static final PlanType[] VALUES = values();
+
+    private final String name;
+
+    /**
+     * Constructs a PlanType.
+     *
+     * @param name the name of the plan, as used in the input and output
+     */
+    PlanType(final String name) {
+        this.name = name;
+    }
+
+    /**
+     * Gets the name of the plan, as used in the input and output.
+     *
+     * @return the plan name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Finds a plan by its name.
+     *
+     * @param name the plan name
+     * @return the matching plan, or null if no plan has that name
+     */
+    public static PlanType find(final String name) {
+        for (final PlanType plan : VALUES) {
+            if (plan.name.equals(name)) {
+                return plan;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Resolves a plan from its name.
+     *
+     * @param name the plan name
+     * @return the matching plan
+     * @throws IllegalArgumentException if no plan has that name
+     */
+    public static PlanType fromName(final String name) {
+        final PlanType plan = find(name);
+        if (plan == null) {
+            throw new IllegalArgumentException("Unknown plan type: " + name);
+        }
+        return plan;
+    }
+}
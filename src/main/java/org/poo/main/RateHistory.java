@@ -0,0 +1,204 @@
+package org.poo.main;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Keeps every version of every exchange rate, ordered by effective timestamp.
+ * A version of the rate set starts at each distinct effective timestamp; the
+ * converter for a version is computed the first time it is asked for and cached.
+ */
+final class RateHistory {
+    private final Map<String, List<ExchangeRate>> versionsByPair = new LinkedHashMap<>();
+    private volatile Versions versions;
+
+    /**
+     * The start timestamps of the rate set versions and their cached converters.
+     *
+     * @param timestamps the distinct effective timestamps, in ascending order
+     * @param converters the converter of each version, or null until computed
+     */
+    private record Versions(int[] timestamps,
+                            AtomicReferenceArray<CurrencyConverter> converters) {
+    }
+
+    /**
+     * Constructs a RateHistory from the initial exchange rates.
+     *
+     * @param exchangeRates the exchange rates, each with its effective timestamp
+     */
+    RateHistory(final List<ExchangeRate> exchangeRates) {
+        for (final ExchangeRate rate : exchangeRates) {
+            insert(rate);
+        }
+        final int[] timestamps = distinctTimestamps();
+        versions = new Versions(timestamps, new AtomicReferenceArray<>(timestamps.length));
+    }
+
+    /**
+     * Gets the newest version of every rate.
+     *
+     * @return the rates in effect after the last known timestamp
+     */
+    synchronized List<ExchangeRate> getLatestRates() {
+        return ratesAt(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Checks whether a rate for the pair would be its newest version.
+     *
+     * @param from      the source currency
+     * @param to        the target currency
+     * @param timestamp the effective timestamp of the rate
+     * @return true if no version of the pair takes effect after the timestamp
+     */
+    synchronized boolean isNewest(final String from, final String to, final int timestamp) {
+        final List<ExchangeRate> pairVersions = versionsByPair.get(pairKey(from, to));
+        return pairVersions == null
+                || pairVersions.get(pairVersions.size() - 1).getTimestamp() <= timestamp;
+    }
+
+    /**
+     * Records a new rate version. Cached converters of the versions it affects are dropped,
+     * and the converter of the newest version is replaced with the given one.
+     *
+     * @param rate   the rate to record
+     * @param latest the converter holding the newest version of every rate
+     */
+    synchronized void add(final ExchangeRate rate, final CurrencyConverter latest) {
+        insert(rate);
+        final Versions previous = versions;
+        final int[] timestamps = distinctTimestamps();
+        final AtomicReferenceArray<CurrencyConverter> converters =
+                new AtomicReferenceArray<>(timestamps.length);
+        for (int i = 0; i < timestamps.length && timestamps[i] < rate.getTimestamp(); i++) {
+            converters.set(i, previous.converters().get(i));
+        }
+        converters.set(timestamps.length - 1, latest);
+        versions = new Versions(timestamps, converters);
+    }
+
+    /**
+     * Sets the converter of the newest version.
+     *
+     * @param latest the converter holding the newest version of every rate
+     */
+    void pinLatest(final CurrencyConverter latest) {
+        final Versions current = versions;
+        if (current.timestamps().length > 0) {
+            current.converters().set(current.timestamps().length - 1, latest);
+        }
+    }
+
+    /**
+     * Gets the converter for the rates in effect at a timestamp. Timestamps before the
+     * first version use the first version.
+     *
+     * @param timestamp the timestamp
+     * @return the converter of the matching version, or null if there are no rates
+     */
+    CurrencyConverter converterAt(final int timestamp) {
+        final Versions current = versions;
+        final int[] timestamps = current.timestamps();
+        if (timestamps.length == 0) {
+            return null;
+        }
+        int index = Arrays.binarySearch(timestamps, timestamp);
+        if (index < 0) {
+            index = Math.max(-index - 2, 0);
+        }
+        CurrencyConverter converter = current.converters().get(index);
+        if (converter == null) {
+            final List<ExchangeRate> rates;
+            synchronized (this) {
+                rates = ratesAt(timestamps[index]);
+            }
+            converter = new CurrencyConverter(new CurrencyGraph(rates).buildRateTable());
+            if (!current.converters().compareAndSet(index, null, converter)) {
+                converter = current.converters().get(index);
+            }
+        }
+        return converter;
+    }
+
+    /**
+     * Collects, for every pair, the newest version in effect at a timestamp.
+     *
+     * @param timestamp the timestamp
+     * @return the rates in effect, ordered by effective timestamp
+     */
+    private List<ExchangeRate> ratesAt(final int timestamp) {
+        final List<ExchangeRate> rates = new ArrayList<>();
+        for (final List<ExchangeRate> pairVersions : versionsByPair.values()) {
+            final int index = upperBound(pairVersions, timestamp) - 1;
+            if (index >= 0) {
+                rates.add(pairVersions.get(index));
+            }
+        }
+        rates.sort(Comparator.comparingInt(ExchangeRate::getTimestamp));
+        return rates;
+    }
+
+    /**
+     * Inserts a rate after every version of its pair with the same or an earlier timestamp.
+     *
+     * @param rate the rate to insert
+     */
+    private void insert(final ExchangeRate rate) {
+        final List<ExchangeRate> pairVersions = versionsByPair.computeIfAbsent(
+                pairKey(rate.getFromCurrency(), rate.getToCurrency()), key -> new ArrayList<>());
+        pairVersions.add(upperBound(pairVersions, rate.getTimestamp()), rate);
+    }
+
+    /**
+     * Finds the first version that takes effect after a timestamp.
+     *
+     * @param pairVersions the versions of a pair, ordered by timestamp
+     * @param timestamp    the timestamp
+     * @return the index of the first later version, or the list size if there is none
+     */
+    private static int upperBound(final List<ExchangeRate> pairVersions, final int timestamp) {
+        int low = 0;
+        int high = pairVersions.size();
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (pairVersions.get(mid).getTimestamp() <= timestamp) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Collects the distinct effective timestamps of all versions.
+     *
+     * @return the timestamps in ascending order
+     */
+    private int[] distinctTimestamps() {
+        return versionsByPair.values().stream()
+                .flatMap(List::stream)
+                .mapToInt(ExchangeRate::getTimestamp)
+                .distinct()
+                .sorted()
+                .toArray();
+    }
+
+    /**
+     * Builds the key of a currency pair, independent of direction,
+     * since a rate defines the conversion both ways.
+     *
+     * @param from the source currency
+     * @param to   the target currency
+     * @return the pair key
+     */
+    private static String pairKey(final String from, final String to) {
+        return from.compareTo(to) < 0 ? from + "/" + to : to + "/" + from;
+    }
+}
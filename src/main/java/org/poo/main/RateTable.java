@@ -0,0 +1,87 @@
+package org.poo.main;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable, versioned table of conversion rates between every pair of known currencies.
+ * Currencies are interned to small integer ids, so a lookup is two hash probes
+ * and an array access, with no allocation. A rate change produces a new table that
+ * shares the rows it did not need to recompute, so a published table never changes.
+ */
+public final class RateTable {
+    private final Map<String, Integer> currencyIds;
+    private final double[][] rates;
+    private final int[][] parents;
+    private final long version;
+
+    /**
+     * Constructs a RateTable.
+     *
+     * @param currencyIds the id of every known currency
+     * @param rates       the rate from each currency id (row) to each currency id (column);
+     *                    NaN marks a pair with no conversion path, and a row may be shorter
+     *                    than the number of currencies if it reaches none of the newer ones
+     * @param parents     for each row, the breadth-first tree the rates were computed along
+     * @param version     the version of this table
+     */
+    RateTable(final Map<String, Integer> currencyIds, final double[][] rates,
+              final int[][] parents, final long version) {
+        this.currencyIds = new HashMap<>(currencyIds);
+        this.rates = rates;
+        this.parents = parents;
+        this.version = version;
+    }
+
+    /**
+     * Retrieves the conversion rate from one currency to another.
+     *
+     * @param fromCurrency the source currency
+     * @param toCurrency   the target currency
+     * @return the conversion rate from source to target currency
+     * @throws IllegalArgumentException if no conversion path is found
+     */
+    public double getRate(final String fromCurrency, final String toCurrency) {
+        if (fromCurrency.equals(toCurrency)) {
+            return 1.0;
+        }
+        final Integer fromId = currencyIds.get(fromCurrency);
+        final Integer toId = currencyIds.get(toCurrency);
+        if (fromId != null && toId != null && toId < rates[fromId].length) {
+            final double rate = rates[fromId][toId];
+            if (!Double.isNaN(rate)) {
+                return rate;
+            }
+        }
+        throw new IllegalArgumentException("No conversion path found from "
+                + fromCurrency + " to " + toCurrency);
+    }
+
+    /**
+     * Gets the version of this table. The table built from the initial rates is version 0
+     * and each applied rate change increments it.
+     *
+     * @return the table version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Gets the rows of rates, for deriving the next version of the table.
+     *
+     * @return the rows of rates
+     */
+    double[][] getRows() {
+        return rates;
+    }
+
+    /**
+     * Gets the breadth-first tree behind each row, for deriving the next version of the table.
+     *
+     * @return the parent currency id of every currency, per row
+     */
+    int[][] getParents() {
+        return parents;
+    }
+}
@@ -0,0 +1,84 @@
+package org.poo.main;
+
+import org.poo.main.pipeline.CommandPipeline;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * The ways an input file can be replayed. Every mode gives the same output; they only
+ * differ in how the commands are spread over threads.
+ */
+public enum ReplayMode {
+    /** One command after the other, on the calling thread. */
+    SEQUENTIAL("sequential"),
+    /** Commands on disjoint accounts at the same time, see {@link ShardedExecutor}. */
+    SHARDED("sharded"),
+    /** Reading, running and writing on three threads, see {@link CommandPipeline}. */
+    PIPELINE("pipeline");
+
+    private static final ReplayMode[] VALUES = values();
+
+    private final String name;
+
+    /**
+     * Constructs a ReplayMode.
+     *
+     * @param name the name of the mode, as given on the command line
+     */
+    ReplayMode(final String name) {
+        this.name = name;
+    }
+
+    /**
+     * Gets the name of the mode, as given on the command line.
+     *
+     * @return the mode name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Resolves a mode from its name.
+     *
+     * @param name the mode name
+     * @return the matching mode
+     * @throws IllegalArgumentException if no mode has that name
+     */
+    public static ReplayMode fromName(final String name) {
+        for (final ReplayMode mode : VALUES) {
+            if (mode.name.equals(name)) {
+                return mode;
+            }
+        }
+        throw new IllegalArgumentException("Unknown replay mode: " + name);
+    }
+
+    /**
+     * Replays every command of an input file in this mode and writes their results to
+     * an output file.
+     *
+     * @param inputFile  the input file
+     * @param outputPath the output file
+     * @param compact    whether to write the output without pretty printing
+     * @throws IOException if a file cannot be read or written
+     */
+    public void replay(final File inputFile, final Path outputPath, final boolean compact)
+            throws IOException {
+        switch (this) {
+            case SHARDED:
+                ShardedExecutor.replay(inputFile, outputPath, compact);
+                break;
+            case PIPELINE:
+                CommandPipeline.replay(inputFile, outputPath, compact,
+                        CommandPipeline.DEFAULT_BUFFER_SIZE);
+                break;
+            case SEQUENTIAL:
+            default:
+                BankContext.replay(inputFile, outputPath, compact);
+                break;
+        }
+    }
+}
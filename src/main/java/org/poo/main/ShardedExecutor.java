@@ -0,0 +1,190 @@
+package org.poo.main;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import org.poo.fileio.CommandInput;
+import org.poo.fileio.StreamingInput;
+import org.poo.main.accounts.Account;
+import org.poo.main.cards.CardDirectory;
+import org.poo.main.output.JsonContext;
+import org.poo.main.output.JsonFileSink;
+import org.poo.main.output.OutputSink;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs the commands of one run of the bank, running commands on disjoint accounts at
+ * the same time.
+ * Before a command runs, its footprint is resolved: the accounts it reads or writes,
+ * after resolving IBANs, aliases and card numbers, and the owners of those accounts,
+ * whose histories it appends to. Only adding funds, sending money and paying online
+ * with a reusable card have a footprint. Such commands join the current wave of
+ * running commands as long as their footprints are disjoint from it; any other
+ * command, or one that cannot be resolved, first waits for the wave to finish and
+ * then runs alone. The running commands never change the registries the footprints
+ * are resolved from, so the wave sees the same accounts a sequential run would.
+ * The results of every command are written in command order, so the output is the
+ * same as that of {@link BankContext#execute}.
+ */
+public final class ShardedExecutor {
+    private final BankContext context;
+    private final Executor pool;
+    private final List<Pending> wave = new ArrayList<>();
+    private final Set<Object> busy = new HashSet<>();
+
+    /**
+     * Constructs a ShardedExecutor.
+     *
+     * @param context the run the commands belong to.
+     * @param pool    the threads that run the commands of a wave.
+     */
+    public ShardedExecutor(final BankContext context, final Executor pool) {
+        this.context = context;
+        this.pool = pool;
+    }
+
+    /**
+     * A command of the current wave, with its results.
+     *
+     * @param results the array the command adds its results to.
+     * @param done    completes when the command has run.
+     */
+    private record Pending(ArrayNode results, CompletableFuture<Void> done) {
+    }
+
+    /**
+     * Runs every command of an input file, on virtual threads, and writes their results
+     * to an output file.
+     *
+     * @param inputFile  the input file.
+     * @param outputPath the output file.
+     * @param compact    whether to write the output without pretty printing.
+     * @throws IOException if a file cannot be read or written.
+     */
+    public static void replay(final File inputFile, final Path outputPath,
+                              final boolean compact) throws IOException {
+        try (StreamingInput input = new StreamingInput(JsonContext.mapper(), inputFile);
+             OutputSink sink = new JsonFileSink(outputPath, compact);
+             ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+            ShardedExecutor executor = new ShardedExecutor(new BankContext(input, sink), pool);
+            for (CommandInput commandInput = input.nextCommand(); commandInput != null;
+                    commandInput = input.nextCommand()) {
+                executor.submit(commandInput);
+            }
+            executor.finish();
+        }
+    }
+
+    /**
+     * Runs a command, in the current wave if its footprint allows it, or alone.
+     *
+     * @param commandInput the command.
+     * @throws IOException if the results of earlier commands cannot be written.
+     */
+    public void submit(final CommandInput commandInput) throws IOException {
+        Set<Object> footprint = footprint(commandInput);
+        if (footprint == null || !disjoint(footprint)) {
+            finish();
+        }
+        ArrayNode results = JsonContext.arrayNode();
+        Runnable task = context.prepare(commandInput, results);
+        if (footprint == null) {
+            task.run();
+            context.write(results);
+            return;
+        }
+        busy.addAll(footprint);
+        wave.add(new Pending(results, CompletableFuture.runAsync(task, pool)));
+    }
+
+    /**
+     * Waits for the current wave to finish and writes its results, in command order.
+     *
+     * @throws IOException if the results cannot be written.
+     */
+    public void finish() throws IOException {
+        for (Pending pending : wave) {
+            pending.done().join();
+            context.write(pending.results());
+        }
+        wave.clear();
+        busy.clear();
+    }
+
+    /**
+     * Checks whether a footprint is disjoint from the current wave.
+     *
+     * @param footprint the footprint.
+     * @return whether no running command uses any of its accounts or users.
+     */
+    private boolean disjoint(final Set<Object> footprint) {
+        for (Object key : footprint) {
+            if (busy.contains(key)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Resolves the accounts and users a command reads or writes.
+     *
+     * @param commandInput the command.
+     * @return the accounts and their owners, or null if the command must run alone.
+     */
+    private Set<Object> footprint(final CommandInput commandInput) {
+        switch (commandInput.getCommand()) {
+            case "addFunds":
+                return footprintOf(context.getAccountRegistry()
+                        .getAccount(commandInput.getAccount()));
+            case "sendMoney":
+                if (context.getAliasDirectory().contains(commandInput.getAccount())) {
+                    return new HashSet<>();
+                }
+                Account receiver = context.getAliasDirectory()
+                        .contains(commandInput.getReceiver())
+                        ? context.getAliasDirectory().lookup(commandInput.getReceiver())
+                        : context.getAccountRegistry().getAccount(commandInput.getReceiver());
+                return footprintOf(context.getAccountRegistry()
+                        .getAccount(commandInput.getAccount()), receiver);
+            case "payOnline":
+                CardDirectory.Entry entry =
+                        context.getCardDirectory().lookup(commandInput.getCardNumber());
+                if (entry == null || entry.card().getType().equals("one-time")
+                        || context.getMerchantCatalog()
+                                .findByName(commandInput.getCommerciant()) == null) {
+                    return null;
+                }
+                return footprintOf(entry.account());
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Builds the footprint of resolved accounts.
+     *
+     * @param accounts the accounts.
+     * @return the accounts and their owners, or null if an account is missing.
+     */
+    private static Set<Object> footprintOf(final Account... accounts) {
+        Set<Object> footprint = new HashSet<>();
+        for (Account account : accounts) {
+            if (account == null) {
+                return null;
+            }
+            footprint.add(account);
+            footprint.add(account.getOwner());
+        }
+        return footprint;
+    }
+}
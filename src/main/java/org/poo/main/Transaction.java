@@ -1,65 +1,43 @@
 package org.poo.main;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.poo.main.output.JsonContext;
 
 import java.util.List;
 
 /**
- * Represents a financial transaction with various attributes and utility methods.
+ * Represents a financial transaction recorded in user and account histories.
+ * Every kind of transaction is its own subclass holding only the fields it uses,
+ * tagged with a {@link TransactionType}; renderers switch on the tag and read the
+ * fields through the accessors of that subclass.
+ * Transactions are created through the static factories.
  */
-public final class Transaction {
+public abstract sealed class Transaction {
+    /** Ledger id of a transaction that has not been recorded yet. */
+    static final int UNRECORDED = -1;
+
+    /** Amount written to the JSON of the kinds of transactions that have none. */
+    private static final double NO_AMOUNT = 0.0;
+
+    private final TransactionType type;
     private final int timestamp;
     private final String description;
-    private final String senderIBAN;
-    private final String receiverIBAN;
-    private final double amount;
-    private final String currency;
-    private final String transferType;
-    private final String card;
-    private final String cardHolder;
-    private final String commerciant;
-    private final String transactionType;
-    private final List<String> accounts;
-    private final List<Double> amounts;
+    private int ledgerId = UNRECORDED;
 
     /**
-     * Constructs a Transaction object.
+     * Constructs a Transaction.
      *
-     * @param timestamp       the timestamp of the transaction
-     * @param description     the description of the transaction
-     * @param senderIBAN      the sender's IBAN
-     * @param receiverIBAN    the receiver's IBAN
-     * @param amount          the amount involved in the transaction
-     * @param currency        the currency of the transaction
-     * @param transferType    the type of transfer
-     * @param card            the card used for the transaction
-     * @param cardHolder      the card holder's name
-     * @param commerciant     the merchant involved in the transaction
-     * @param transactionType the type of transaction
-     * @param accounts        the list of accounts involved in the transaction
+     * @param type        the kind of transaction
+     * @param timestamp   the timestamp of the transaction
+     * @param description the description of the transaction
      */
-    public Transaction(final int timestamp, final String description, final String senderIBAN,
-                       final String receiverIBAN, final double amount, final String currency,
-                       final String transferType, final String card, final String cardHolder,
-                       final String commerciant, final String transactionType,
-                       final List<String> accounts, final List<Double> amounts) {
+    private Transaction(final TransactionType type, final int timestamp,
+                        final String description) {
+        this.type = type;
         this.timestamp = timestamp;
         this.description = description;
-        this.senderIBAN = senderIBAN;
-        this.receiverIBAN = receiverIBAN;
-        this.amount = amount;
-        this.currency = currency;
-        this.transferType = transferType;
-        this.card = card;
-        this.cardHolder = cardHolder;
-        this.commerciant = commerciant;
-        this.transactionType = transactionType;
-        this.accounts = accounts;
-        this.amounts = amounts;
     }
 
-
     /**
      * Creates a send money transaction.
      *
@@ -67,8 +45,7 @@ public final class Transaction {
      * @param description  the description of the transaction
      * @param senderIBAN   the sender's IBAN
      * @param receiverIBAN the receiver's IBAN
-     * @param amount       the amount to send
-     * @param currency     the currency of the transaction
+     * @param amount       the amount to send, in the transaction currency
      * @param transferType the type of transfer
      * @return a Transaction representing a send money transaction
      */
@@ -76,24 +53,10 @@ public final class Transaction {
                                                          final String description,
                                                          final String senderIBAN,
                                                          final String receiverIBAN,
-                                                         final double amount,
-                                                         final String currency,
+                                                         final Money amount,
                                                          final String transferType) {
-        return new Transaction(
-                timestamp,
-                description,
-                senderIBAN,
-                receiverIBAN,
-                amount,
-                currency,
-                transferType,
-                null,
-                null,
-                null,
-                "sendMoney",
-                null,
-                null
-        );
+        return new SendMoney(timestamp, description, senderIBAN, receiverIBAN, amount,
+                transferType);
     }
 
     /**
@@ -111,21 +74,8 @@ public final class Transaction {
                                                     final String senderIBAN,
                                                     final String card,
                                                     final String cardHolder) {
-        return new Transaction(
-                timestamp,
-                description,
-                senderIBAN,
-                null,
-                0,
-                null,
-                null,
-                card,
-                cardHolder,
-                null,
-                "createCard",
-                null,
-                null
-        );
+        return new CardEvent(TransactionType.CREATE_CARD, timestamp, description, senderIBAN,
+                card, cardHolder);
     }
 
     /**
@@ -139,23 +89,9 @@ public final class Transaction {
      */
     public static Transaction createPayOnlineTransaction(final int timestamp,
                                                          final String description,
-                                                         final double amount,
+                                                         final Money amount,
                                                          final String commerciant) {
-        return new Transaction(
-                timestamp,
-                description,
-                null,
-                null,
-                amount,
-                null,
-                null,
-                null,
-                null,
-                commerciant,
-                "payOnline",
-                null,
-                null
-        );
+        return new CardPayment(timestamp, description, amount, commerciant);
     }
 
     /**
@@ -171,21 +107,7 @@ public final class Transaction {
                                                     final String description,
                                                     final String senderIBAN,
                                                     final String currency) {
-        return new Transaction(
-                timestamp,
-                description,
-                senderIBAN,
-                null,
-                0.0,
-                currency,
-                null,
-                null,
-                null,
-                null,
-                "addAccount",
-                null,
-                null
-        );
+        return new Notice(TransactionType.ADD_ACCOUNT, timestamp, description);
     }
 
     /**
@@ -193,31 +115,16 @@ public final class Transaction {
      *
      * @param timestamp   the timestamp of the transaction
      * @param description the description of the transaction
-     * @param amount      the amount to split
-     * @param currency    the currency of the transaction
+     * @param amount      the amount to split, in the transaction currency
      * @param accounts    the list of accounts involved in the split
      * @return a Transaction representing a split payment transaction
      */
     public static Transaction splitPaymentTransaction(final int timestamp,
                                                       final String description,
-                                                      final double amount,
-                                                      final String currency,
+                                                      final Money amount,
                                                       final List<String> accounts) {
-        return new Transaction(
-                timestamp,
-                description,
-                null,
-                null,
-                amount,
-                currency,
-                null,
-                null,
-                null,
-                null,
-                "splitPayment",
-                accounts,
-                null
-        );
+        return new SplitPayment(TransactionType.SPLIT_PAYMENT, timestamp, description, null,
+                null, amount, accounts, null);
     }
 
     /**
@@ -225,33 +132,18 @@ public final class Transaction {
      *
      * @param timestamp   the timestamp of the transaction.
      * @param description the description of the transaction.
-     * @param amount      the total amount to be split.
-     * @param currency    the currency of the transaction.
+     * @param amount      the total amount to be split, in the transaction currency.
      * @param accounts    the list of accounts involved.
      * @param amounts     the list of amounts per account.
      * @return a Transaction representing a custom split payment transaction.
      */
     public static Transaction splitPaymentCustomTransaction(final int timestamp,
                                                             final String description,
-                                                            final double amount,
-                                                            final String currency,
+                                                            final Money amount,
                                                             final List<String> accounts,
-                                                            final List<Double> amounts) {
-        return new Transaction(
-                timestamp,
-                description,
-                "custom",
-                null,
-                amount,
-                currency,
-                null,
-                null,
-                null,
-                null,
-                "splitPaymentCustom",
-                accounts,
-                amounts
-        );
+                                                            final List<Money> amounts) {
+        return new SplitPayment(TransactionType.SPLIT_PAYMENT_CUSTOM, timestamp, description,
+                "custom", null, amount, accounts, amounts);
     }
 
     /**
@@ -259,35 +151,20 @@ public final class Transaction {
      *
      * @param timestamp   the timestamp of the transaction.
      * @param description the description of the transaction.
-     * @param receiverIBAN the IBAN for the error.
-     * @param amount      the amount involved.
-     * @param currency    the currency of the transaction.
+     * @param error       the reason the payment failed.
+     * @param amount      the amount involved, in the transaction currency.
      * @param accounts    the list of accounts involved.
      * @param amounts     the list of amounts per account.
      * @return a Transaction representing a custom split payment transaction with an error.
      */
     public static Transaction splitPaymentCustomErrorTransaction(final int timestamp,
                                                                  final String description,
-                                                                 final String receiverIBAN,
-                                                                 final double amount,
-                                                                 final String currency,
+                                                                 final String error,
+                                                                 final Money amount,
                                                                  final List<String> accounts,
-                                                                 final List<Double> amounts) {
-        return new Transaction(
-                timestamp,
-                description,
-                "custom",
-                receiverIBAN,
-                amount,
-                currency,
-                null,
-                null,
-                null,
-                null,
-                "splitPaymentCustom",
-                accounts,
-                amounts
-        );
+                                                                 final List<Money> amounts) {
+        return new SplitPayment(TransactionType.SPLIT_PAYMENT_CUSTOM, timestamp, description,
+                "custom", error, amount, accounts, amounts);
     }
 
     /**
@@ -295,33 +172,18 @@ public final class Transaction {
      *
      * @param timestamp   the timestamp of the transaction.
      * @param description the description of the transaction.
-     * @param receiverIBAN the IBAN for the error.
-     * @param amount      the total amount to be split.
-     * @param currency    the currency of the transaction.
+     * @param error       the reason the payment failed.
+     * @param amount      the total amount to be split, in the transaction currency.
      * @param accounts    the list of accounts involved.
      * @return a Transaction representing an equal split payment transaction with an error.
      */
     public static Transaction splitPaymentEqualErrorTransaction(final int timestamp,
                                                                 final String description,
-                                                                final String receiverIBAN,
-                                                                final double amount,
-                                                                final String currency,
+                                                                final String error,
+                                                                final Money amount,
                                                                 final List<String> accounts) {
-        return new Transaction(
-                timestamp,
-                description,
-                "equal",
-                receiverIBAN,
-                amount,
-                currency,
-                null,
-                null,
-                null,
-                null,
-                "splitPaymentEqual",
-                accounts,
-                null
-        );
+        return new SplitPayment(TransactionType.SPLIT_PAYMENT_EQUAL, timestamp, description,
+                "equal", error, amount, accounts, null);
     }
 
     /**
@@ -333,21 +195,7 @@ public final class Transaction {
      */
     public static Transaction deleteAccountTransaction(final int timestamp,
                                                        final String description) {
-        return new Transaction(
-                timestamp,
-                description,
-                null,
-                null,
-                0.0,
-                null,
-                null,
-                null,
-                null,
-                null,
-                "deleteAccount",
-                null,
-                null
-        );
+        return new Notice(TransactionType.DELETE_ACCOUNT, timestamp, description);
     }
 
     /**
@@ -365,21 +213,8 @@ public final class Transaction {
                                                     final String card,
                                                     final String cardHolder,
                                                     final String description) {
-        return new Transaction(
-                timestamp,
-                description,
-                senderIBAN,
-                null,
-                0.0,
-                null,
-                null,
-                card,
-                cardHolder,
-                null,
-                "deleteCard",
-                null,
-                null
-        );
+        return new CardEvent(TransactionType.DELETE_CARD, timestamp, description, senderIBAN,
+                card, cardHolder);
     }
 
     /**
@@ -387,29 +222,15 @@ public final class Transaction {
      *
      * @param senderIBAN   the IBAN of the account being upgraded.
      * @param description  the description of the transaction.
-     * @param receiverIBAN the new plan type for the account.
+     * @param newPlanType  the new plan type for the account.
      * @param timestamp    the timestamp of the transaction.
      * @return a Transaction representing the upgrade of an account plan.
      */
     public static Transaction upgradePlanTransaction(final String senderIBAN,
                                                      final String description,
-                                                     final String receiverIBAN,
+                                                     final String newPlanType,
                                                      final int timestamp) {
-        return new Transaction(
-                timestamp,
-                description,
-                senderIBAN,
-                receiverIBAN,
-                0.0,
-                null,
-                null,
-                null,
-                null,
-                null,
-                "upgradePlan",
-                null,
-                null
-        );
+        return new PlanUpgrade(timestamp, description, senderIBAN, newPlanType);
     }
 
     /**
@@ -421,140 +242,335 @@ public final class Transaction {
      * @return a Transaction representing a cash withdrawal.
      */
     public static Transaction cashWithdrawalTransaction(final String description,
-                                                        final double amount,
+                                                        final Money amount,
                                                         final int timestamp) {
-        return new Transaction(
-                timestamp,
-                description,
-                null,
-                null,
-                amount,
-                null,
-                null,
-                null,
-                null,
-                null,
-                "cashWithdrawal",
-                null,
-                null
-        );
+        return new AmountEvent(TransactionType.CASH_WITHDRAWAL, timestamp, description, amount);
     }
 
     /**
      * Creates a transaction for adding interest to an account.
      *
      * @param description the description of the transaction.
-     * @param amount      the interest amount added.
-     * @param currency    the currency of the interest.
+     * @param amount      the interest amount added, in the transaction currency.
      * @param timestamp   the timestamp of the transaction.
      * @return a Transaction representing the addition of interest to an account.
      */
     public static Transaction addInterestTransaction(final String description,
-                                                     final double amount,
-                                                     final String currency,
+                                                     final Money amount,
                                                      final int timestamp) {
-        return new Transaction(
-                timestamp,
-                description,
-                null,
-                null,
-                amount,
-                currency,
-                null,
-                null,
-                null,
-                null,
-                "addInterest",
-                null,
-                null
-        );
+        return new AmountEvent(TransactionType.ADD_INTEREST, timestamp, description, amount);
     }
 
-
     /**
      * Converts the transaction to a JSON representation.
      *
      * @return an ObjectNode representing the transaction in JSON format
      */
-    public ObjectNode toJson() {
-        final ObjectMapper mapper = new ObjectMapper();
-        final ObjectNode transactionNode = mapper.createObjectNode();
+    public final ObjectNode toJson() {
+        final ObjectNode transactionNode = JsonContext.objectNode();
 
         transactionNode.put("timestamp", timestamp);
         transactionNode.put("description", description);
+        putFields(transactionNode);
 
-        if (senderIBAN != null) {
-            transactionNode.put("senderIBAN", senderIBAN);
-        }
-        if (receiverIBAN != null) {
-            transactionNode.put("receiverIBAN", receiverIBAN);
-        }
-        transactionNode.put("amount", amount);
-        if (transferType != null) {
-            transactionNode.put("transferType", transferType);
-        }
-        if (card != null) {
-            transactionNode.put("card", card);
-        }
-        if (cardHolder != null) {
-            transactionNode.put("cardHolder", cardHolder);
-        }
-        if (commerciant != null) {
-            transactionNode.put("commerciant", commerciant);
+        return transactionNode;
+    }
+
+    /**
+     * Adds the fields of this kind of transaction to its JSON representation, after the
+     * timestamp and the description. Every kind writes an amount, even one it does not have.
+     *
+     * @param transactionNode the JSON node
+     */
+    abstract void putFields(ObjectNode transactionNode);
+
+    /**
+     * Adds a text field to a JSON node, unless the value is null.
+     *
+     * @param node  the JSON node
+     * @param field the field name
+     * @param value the field value, or null
+     */
+    private static void putIfPresent(final ObjectNode node, final String field,
+                                     final String value) {
+        if (value != null) {
+            node.put(field, value);
         }
+    }
 
-        return transactionNode;
+    public final TransactionType getType() {
+        return type;
     }
 
-    public int getTimestamp() {
+    public final int getTimestamp() {
         return timestamp;
     }
 
-    public String getDescription() {
+    public final String getDescription() {
         return description;
     }
 
-    public String getSenderIBAN() {
-        return senderIBAN;
+    /**
+     * Gets the id of the transaction in the ledger.
+     *
+     * @return the ledger id, or {@link #UNRECORDED} if it was not recorded yet
+     */
+    final int getLedgerId() {
+        return ledgerId;
     }
 
-    public String getReceiverIBAN() {
-        return receiverIBAN;
+    /**
+     * Sets the id of the transaction in the ledger. Only the ledger records transactions.
+     *
+     * @param id the ledger id
+     */
+    final void assignLedgerId(final int id) {
+        this.ledgerId = id;
     }
 
-    public double getAmount() {
-        return amount;
-    }
+    /**
+     * A transfer between two accounts, seen by the sender or by the receiver.
+     */
+    public static final class SendMoney extends Transaction {
+        private final String senderIBAN;
+        private final String receiverIBAN;
+        private final Money amount;
+        private final String transferType;
+
+        private SendMoney(final int timestamp, final String description,
+                          final String senderIBAN, final String receiverIBAN,
+                          final Money amount, final String transferType) {
+            super(TransactionType.SEND_MONEY, timestamp, description);
+            this.senderIBAN = senderIBAN;
+            this.receiverIBAN = receiverIBAN;
+            this.amount = amount;
+            this.transferType = transferType;
+        }
 
-    public String getCurrency() {
-        return currency;
-    }
+        @Override
+        void putFields(final ObjectNode transactionNode) {
+            putIfPresent(transactionNode, "senderIBAN", senderIBAN);
+            putIfPresent(transactionNode, "receiverIBAN", receiverIBAN);
+            transactionNode.put("amount", amount.toDouble());
+            putIfPresent(transactionNode, "transferType", transferType);
+        }
+
+        public String getSenderIBAN() {
+            return senderIBAN;
+        }
 
-    public String getTransferType() {
-        return transferType;
+        public String getReceiverIBAN() {
+            return receiverIBAN;
+        }
+
+        public Money getAmount() {
+            return amount;
+        }
+
+        public String getTransferType() {
+            return transferType;
+        }
     }
 
-    public String getCard() {
-        return card;
+    /**
+     * A card created or destroyed, along with the account it belongs to.
+     */
+    public static final class CardEvent extends Transaction {
+        private final String account;
+        private final String card;
+        private final String cardHolder;
+
+        private CardEvent(final TransactionType type, final int timestamp,
+                          final String description, final String account, final String card,
+                          final String cardHolder) {
+            super(type, timestamp, description);
+            this.account = account;
+            this.card = card;
+            this.cardHolder = cardHolder;
+        }
+
+        /**
+         * Writes the account as the sender IBAN, as the JSON of card events always has.
+         *
+         * @param transactionNode the JSON node
+         */
+        @Override
+        void putFields(final ObjectNode transactionNode) {
+            putIfPresent(transactionNode, "senderIBAN", account);
+            transactionNode.put("amount", NO_AMOUNT);
+            putIfPresent(transactionNode, "card", card);
+            putIfPresent(transactionNode, "cardHolder", cardHolder);
+        }
+
+        public String getAccount() {
+            return account;
+        }
+
+        public String getCard() {
+            return card;
+        }
+
+        public String getCardHolder() {
+            return cardHolder;
+        }
     }
 
-    public String getCardHolder() {
-        return cardHolder;
+    /**
+     * A card payment to a merchant.
+     */
+    public static final class CardPayment extends Transaction {
+        private final Money amount;
+        private final String commerciant;
+
+        private CardPayment(final int timestamp, final String description, final Money amount,
+                            final String commerciant) {
+            super(TransactionType.PAY_ONLINE, timestamp, description);
+            this.amount = amount;
+            this.commerciant = commerciant;
+        }
+
+        @Override
+        void putFields(final ObjectNode transactionNode) {
+            transactionNode.put("amount", amount.toDouble());
+            putIfPresent(transactionNode, "commerciant", commerciant);
+        }
+
+        public Money getAmount() {
+            return amount;
+        }
+
+        public String getCommerciant() {
+            return commerciant;
+        }
     }
 
-    public String getCommerciant() {
-        return commerciant;
+    /**
+     * An event described by its text alone.
+     */
+    public static final class Notice extends Transaction {
+        private Notice(final TransactionType type, final int timestamp,
+                       final String description) {
+            super(type, timestamp, description);
+        }
+
+        @Override
+        void putFields(final ObjectNode transactionNode) {
+            transactionNode.put("amount", NO_AMOUNT);
+        }
     }
 
-    public String getTransactionType() {
-        return transactionType;
+    /**
+     * A settled or failed split payment. The error is null unless the payment failed, and
+     * the split type and the amount per account are null for the original split payments.
+     */
+    public static final class SplitPayment extends Transaction {
+        private final String splitType;
+        private final String error;
+        private final Money amount;
+        private final List<String> accounts;
+        private final List<Money> amounts;
+
+        private SplitPayment(final TransactionType type, final int timestamp,
+                             final String description, final String splitType,
+                             final String error, final Money amount,
+                             final List<String> accounts, final List<Money> amounts) {
+            super(type, timestamp, description);
+            this.splitType = splitType;
+            this.error = error;
+            this.amount = amount;
+            this.accounts = accounts;
+            this.amounts = amounts;
+        }
+
+        /**
+         * Writes the split type as the sender IBAN and the error as the receiver IBAN,
+         * as the JSON of split payments always has.
+         *
+         * @param transactionNode the JSON node
+         */
+        @Override
+        void putFields(final ObjectNode transactionNode) {
+            putIfPresent(transactionNode, "senderIBAN", splitType);
+            putIfPresent(transactionNode, "receiverIBAN", error);
+            transactionNode.put("amount", amount.toDouble());
+        }
+
+        public String getSplitType() {
+            return splitType;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public Money getAmount() {
+            return amount;
+        }
+
+        public List<String> getAccounts() {
+            return accounts;
+        }
+
+        public List<Money> getAmounts() {
+            return amounts;
+        }
     }
 
-    public List<String> getAccounts() {
-        return accounts;
+    /**
+     * A plan upgrade of the owner of an account.
+     */
+    public static final class PlanUpgrade extends Transaction {
+        private final String account;
+        private final String newPlanType;
+
+        private PlanUpgrade(final int timestamp, final String description, final String account,
+                            final String newPlanType) {
+            super(TransactionType.UPGRADE_PLAN, timestamp, description);
+            this.account = account;
+            this.newPlanType = newPlanType;
+        }
+
+        /**
+         * Writes the account as the sender IBAN and the new plan as the receiver IBAN,
+         * as the JSON of plan upgrades always has.
+         *
+         * @param transactionNode the JSON node
+         */
+        @Override
+        void putFields(final ObjectNode transactionNode) {
+            putIfPresent(transactionNode, "senderIBAN", account);
+            putIfPresent(transactionNode, "receiverIBAN", newPlanType);
+            transactionNode.put("amount", NO_AMOUNT);
+        }
+
+        public String getAccount() {
+            return account;
+        }
+
+        public String getNewPlanType() {
+            return newPlanType;
+        }
     }
 
-    public List<Double> getAmounts() {
-        return amounts;
+    /**
+     * An event with an amount and nothing else, such as a withdrawal or interest.
+     */
+    public static final class AmountEvent extends Transaction {
+        private final Money amount;
+
+        private AmountEvent(final TransactionType type, final int timestamp,
+                            final String description, final Money amount) {
+            super(type, timestamp, description);
+            this.amount = amount;
+        }
+
+        @Override
+        void putFields(final ObjectNode transactionNode) {
+            transactionNode.put("amount", amount.toDouble());
+        }
+
+        public Money getAmount() {
+            return amount;
+        }
     }
 }
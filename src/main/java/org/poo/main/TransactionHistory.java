@@ -0,0 +1,220 @@
+package org.poo.main;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * The transaction history of a user, kept in the order it is printed, as ids into the
+ * bank's ledger.
+ * Most transactions are appended as they happen, but a settled or failed split payment
+ * is inserted late, before the first transaction with the same or a later timestamp.
+ * The history is an implicit treap: a randomized balanced tree ordered by position,
+ * where every node also knows the latest timestamp in its subtree. That bound
+ * finds the insertion point and the tree inserts there, both in O(log n) expected time.
+ * The result is exactly what a scan from the start would give, even if the history
+ * is not sorted.
+ */
+public final class TransactionHistory {
+    private final SplittableRandom priorities = new SplittableRandom();
+    private final Ledger ledger;
+    private Node root;
+
+    /**
+     * Constructs an empty TransactionHistory.
+     *
+     * @param ledger the ledger the transactions are recorded in.
+     */
+    public TransactionHistory(final Ledger ledger) {
+        this.ledger = ledger;
+    }
+
+    /**
+     * A transaction in the tree, with the size and latest timestamp of its subtree.
+     */
+    private static final class Node {
+        private final int id;
+        private final int timestamp;
+        private final int priority;
+        private Node left;
+        private Node right;
+        private int size;
+        private int maxTimestamp;
+
+        /**
+         * Constructs a leaf Node.
+         *
+         * @param id        the ledger id of the transaction.
+         * @param timestamp the timestamp of the transaction.
+         * @param priority  the random heap priority.
+         */
+        Node(final int id, final int timestamp, final int priority) {
+            this.id = id;
+            this.timestamp = timestamp;
+            this.priority = priority;
+            this.size = 1;
+            this.maxTimestamp = timestamp;
+        }
+
+        /**
+         * Recomputes the subtree size and latest timestamp from the children.
+         *
+         * @return this node.
+         */
+        Node update() {
+            size = 1 + size(left) + size(right);
+            maxTimestamp = timestamp;
+            if (left != null) {
+                maxTimestamp = Math.max(maxTimestamp, left.maxTimestamp);
+            }
+            if (right != null) {
+                maxTimestamp = Math.max(maxTimestamp, right.maxTimestamp);
+            }
+            return this;
+        }
+    }
+
+    /**
+     * Gets the number of transactions in the history.
+     *
+     * @return the number of transactions.
+     */
+    public int size() {
+        return size(root);
+    }
+
+    /**
+     * Appends a transaction to the end of the history.
+     *
+     * @param transaction the transaction to append.
+     */
+    public void append(final Transaction transaction) {
+        insertAt(size(root), transaction);
+    }
+
+    /**
+     * Inserts a transaction before the first transaction with the same or a later
+     * timestamp, or at the end if there is none.
+     *
+     * @param transaction the transaction to insert.
+     */
+    public void insertInOrder(final Transaction transaction) {
+        insertAt(firstAtOrAfter(transaction.getTimestamp()), transaction);
+    }
+
+    /**
+     * Retrieves every transaction, in history order.
+     *
+     * @return an unmodifiable snapshot of the history.
+     */
+    public List<Transaction> toList() {
+        List<Transaction> list = new ArrayList<>(size(root));
+        Deque<Node> path = new ArrayDeque<>();
+        Node node = root;
+        while (node != null || !path.isEmpty()) {
+            while (node != null) {
+                path.push(node);
+                node = node.left;
+            }
+            node = path.pop();
+            list.add(ledger.get(node.id));
+            node = node.right;
+        }
+        return Collections.unmodifiableList(list);
+    }
+
+    /**
+     * Finds the position of the first transaction with the same or a later timestamp.
+     *
+     * @param timestamp the timestamp.
+     * @return the position, or the size of the history if every transaction is earlier.
+     */
+    private int firstAtOrAfter(final int timestamp) {
+        if (root == null || root.maxTimestamp < timestamp) {
+            return size(root);
+        }
+        int position = 0;
+        Node node = root;
+        while (true) {
+            if (node.left != null && node.left.maxTimestamp >= timestamp) {
+                node = node.left;
+            } else if (node.timestamp >= timestamp) {
+                return position + size(node.left);
+            } else {
+                position += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    /**
+     * Inserts a transaction at a position.
+     *
+     * @param position    the position, between 0 and the size of the history.
+     * @param transaction the transaction to insert.
+     */
+    private void insertAt(final int position, final Transaction transaction) {
+        Node node = new Node(ledger.record(transaction), transaction.getTimestamp(),
+                priorities.nextInt());
+        Node[] parts = split(root, position);
+        root = merge(merge(parts[0], node), parts[1]);
+    }
+
+    /**
+     * Splits a subtree into its first transactions and the rest.
+     *
+     * @param node  the root of the subtree.
+     * @param count the number of transactions in the first part.
+     * @return the roots of the two parts.
+     */
+    private static Node[] split(final Node node, final int count) {
+        if (node == null) {
+            return new Node[] {null, null};
+        }
+        if (size(node.left) >= count) {
+            Node[] parts = split(node.left, count);
+            node.left = parts[1];
+            parts[1] = node.update();
+            return parts;
+        }
+        Node[] parts = split(node.right, count - size(node.left) - 1);
+        node.right = parts[0];
+        parts[0] = node.update();
+        return parts;
+    }
+
+    /**
+     * Concatenates two subtrees.
+     *
+     * @param first  the root of the subtree that comes first.
+     * @param second the root of the subtree that comes second.
+     * @return the root of the concatenation.
+     */
+    private static Node merge(final Node first, final Node second) {
+        if (first == null) {
+            return second;
+        }
+        if (second == null) {
+            return first;
+        }
+        if (first.priority > second.priority) {
+            first.right = merge(first.right, second);
+            return first.update();
+        }
+        second.left = merge(first, second.left);
+        return second.update();
+    }
+
+    /**
+     * Gets the size of a subtree.
+     *
+     * @param node the root of the subtree, or null.
+     * @return the number of transactions in it.
+     */
+    private static int size(final Node node) {
+        return node == null ? 0 : node.size;
+    }
+}
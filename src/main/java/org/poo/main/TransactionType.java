@@ -0,0 +1,21 @@
+package org.poo.main;
+
+/**
+ * The kinds of transactions recorded in user and account histories.
+ * Each kind is carried by a single subclass of {@link Transaction}, which renderers
+ * read once they have dispatched on this tag.
+ */
+public enum TransactionType {
+    SEND_MONEY,
+    CREATE_CARD,
+    DELETE_CARD,
+    PAY_ONLINE,
+    ADD_ACCOUNT,
+    DELETE_ACCOUNT,
+    SPLIT_PAYMENT,
+    SPLIT_PAYMENT_CUSTOM,
+    SPLIT_PAYMENT_EQUAL,
+    UPGRADE_PLAN,
+    CASH_WITHDRAWAL,
+    ADD_INTEREST
+}
@@ -16,18 +16,20 @@ public class User {
     public String firstName;
     public String lastName;
     public String email;
-    private Map<String, String> aliases;
-    private List<Transaction> transactions;
+    private final Ledger ledger;
+    private final TransactionHistory transactions;
     private String birthDate;
     private String occupation;
-    private String planType;
+    private PlanType planType;
 
     /**
      * Default constructor for User.
      */
     public User() {
         this.accounts = new ArrayList<>();
-        this.planType = "standard";
+        this.planType = PlanType.STANDARD;
+        this.ledger = new Ledger();
+        this.transactions = new TransactionHistory(ledger);
         this.pendingTransactions = new LinkedList<>();
     }
 
@@ -39,19 +41,22 @@ public class User {
      * @param email      the user's email address
      * @param birthDate  the user's birth date in the format yyyy-MM-dd
      * @param occupation the user's occupation
+     * @param ledger     the ledger the user's transactions are recorded in
      */
     public User(final String firstName, final String lastName, final String email,
-                final String birthDate, final String occupation) {
+                final String birthDate, final String occupation, final Ledger ledger) {
         this.firstName = firstName;
         this.lastName = lastName;
         this.email = email;
         this.accounts = new ArrayList<>();
-        this.aliases = new HashMap<>();
-        this.transactions = new ArrayList<>();
+        this.ledger = ledger;
+        this.transactions = new TransactionHistory(ledger);
         this.pendingTransactions = new LinkedList<>();
         this.birthDate = birthDate;
         this.occupation = occupation;
-        this.planType = occupation.equalsIgnoreCase("student") ? "student" : "standard";
+        this.planType = occupation.equalsIgnoreCase("student")
+                ? PlanType.STUDENT
+                : PlanType.STANDARD;
     }
 
     /**
@@ -62,6 +67,8 @@ public class User {
     public User(final String email) {
         this.accounts = new ArrayList<>();
         this.email = email;
+        this.ledger = new Ledger();
+        this.transactions = new TransactionHistory(ledger);
         this.pendingTransactions = new LinkedList<>();
     }
 
@@ -80,7 +87,7 @@ public class User {
      *
      * @return the user's plan type
      */
-    public String getPlanType() {
+    public PlanType getPlanType() {
         return planType;
     }
 
@@ -89,7 +96,7 @@ public class User {
      *
      * @param newPlanType the new plan type to set
      */
-    public void upgradePlanType(final String newPlanType) {
+    public void upgradePlanType(final PlanType newPlanType) {
         this.planType = newPlanType;
         for (Account account : accounts) {
             account.setPlanType(newPlanType);
@@ -114,13 +121,23 @@ public class User {
         return accounts;
     }
 
+    /**
+     * Retrieves the ledger the user's transactions, and those of their accounts,
+     * are recorded in.
+     *
+     * @return the ledger
+     */
+    public Ledger getLedger() {
+        return ledger;
+    }
+
     /**
      * Retrieves the user's transactions.
      *
-     * @return a list of the user's transactions
+     * @return an unmodifiable snapshot of the user's transactions
      */
     public List<Transaction> getTransactions() {
-        return transactions;
+        return transactions.toList();
     }
 
     /**
@@ -129,7 +146,17 @@ public class User {
      * @param transaction the transaction to add
      */
     public void addTransaction(final Transaction transaction) {
-        transactions.add(transaction);
+        transactions.append(transaction);
+    }
+
+    /**
+     * Inserts a transaction recorded late into the user's transaction history,
+     * before the first transaction with the same or a later timestamp.
+     *
+     * @param transaction the transaction to insert
+     */
+    public void insertTransaction(final Transaction transaction) {
+        transactions.insertInOrder(transaction);
     }
 
     /**
@@ -168,26 +195,6 @@ public class User {
         return pendingTransactions.peek();
     }
 
-    /**
-     * Adds an alias for an account IBAN.
-     *
-     * @param alias       the alias name
-     * @param accountIBAN the associated IBAN
-     */
-    public void addAlias(final String alias, final String accountIBAN) {
-        aliases.put(alias, accountIBAN);
-    }
-
-    /**
-     * Retrieves the IBAN associated with a given alias.
-     *
-     * @param alias the alias name
-     * @return the associated IBAN, or null if not found
-     */
-    public String getIBANFromAlias(final String alias) {
-        return aliases.get(alias);
-    }
-
     /**
      * Retrieves the user's first name.
      *
@@ -0,0 +1,49 @@
+package org.poo.main;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bank-wide directory of the users, keyed by email.
+ * Users are registered here once, when the input is loaded, and keep their
+ * registration order, which is the order they are printed in.
+ */
+public final class UserDirectory {
+    private final List<User> users = new ArrayList<>();
+    private final Map<String, User> usersByEmail = new HashMap<>();
+
+    /**
+     * Registers a user under their email.
+     *
+     * @param user the user to register.
+     * @throws IllegalArgumentException if a user with the same email is already registered.
+     */
+    public void register(final User user) {
+        if (usersByEmail.putIfAbsent(user.getEmail(), user) != null) {
+            throw new IllegalArgumentException("User already registered: " + user.getEmail());
+        }
+        users.add(user);
+    }
+
+    /**
+     * Retrieves the user with the given email.
+     *
+     * @param email the email to look up.
+     * @return the matching user, or null if no such user exists.
+     */
+    public User findByEmail(final String email) {
+        return usersByEmail.get(email);
+    }
+
+    /**
+     * Retrieves every user, in the order they were registered.
+     *
+     * @return an unmodifiable view of the users.
+     */
+    public List<User> getAll() {
+        return Collections.unmodifiableList(users);
+    }
+}
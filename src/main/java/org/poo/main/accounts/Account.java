@@ -1,5 +1,7 @@
 package org.poo.main.accounts;
 
+import org.poo.main.Money;
+import org.poo.main.PlanType;
 import org.poo.main.Transaction;
 import org.poo.main.User;
 import org.poo.main.cards.Card;
@@ -8,22 +10,30 @@ import org.poo.main.commandsPhase2.SpendingThresholdCashbackStrategy;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Abstract class representing a generic bank account.
  * Designed to be safely extended by subclasses.
+ * The balance only changes under the account's striped lock, so commands running on
+ * several threads can move money through {@link #credit}, {@link #debit},
+ * {@link #tryDebit}, {@link #tryCredit}, {@link #tryPay}, {@link #tryWithdraw},
+ * {@link #transfer} and {@link #debitAll} without losing updates.
  */
 public abstract class Account {
     private final List<Card> cards;
-    private final List<Transaction> transactions;
+    private final TransactionLog transactions;
+    private final MerchantSpending merchantSpending;
     private String iban;
     private User owner;
-    private double balance;
-    private double totalSpent;
+    private final BalanceLocks balanceLocks;
+    private final int lockStripe;
+    private volatile Money balance;
     private String currency;
-    private double minBalance;
-    private String planType;
+    private Money minBalance;
+    private PlanType planType;
     private CashbackStrategy cashbackStrategy;
+    private final CashbackLedger cashbackLedger;
 
     /**
      * Constructor for Account.
@@ -31,19 +41,24 @@ public abstract class Account {
      * @param iban     the account's IBAN
      * @param currency the account's currency
      * @param owner    the owner of the account
+     * @param locks    the locks guarding the balances of the run
      */
-    public Account(final String iban, final String currency, final User owner) {
+    Account(final String iban, final String currency, final User owner,
+            final BalanceLocks locks) {
         this.iban = iban;
+        this.balanceLocks = locks;
+        this.lockStripe = BalanceLocks.stripeOf(iban);
         this.currency = currency;
-        this.balance = 0.0;
+        this.balance = Money.zero(currency);
         this.cards = new ArrayList<>();
         this.owner = owner;
-        this.minBalance = 0.0;
-        this.transactions = new ArrayList<>();
+        this.minBalance = Money.zero(currency);
+        this.transactions = new TransactionLog(owner.getLedger());
+        this.merchantSpending = new MerchantSpending();
         this.planType = owner.getOccupation().equalsIgnoreCase("student")
-                ? "student"
-                : "standard";
-        this.totalSpent = 0.0;
+                ? PlanType.STUDENT
+                : PlanType.STANDARD;
+        this.cashbackLedger = new CashbackLedger();
         this.cashbackStrategy = new SpendingThresholdCashbackStrategy();
     }
 
@@ -57,29 +72,20 @@ public abstract class Account {
     }
 
     /**
-     * Adds an amount to the total spent by the account.
+     * Retrieves the cashback ledger of the account.
      *
-     * @param amount the amount to add
+     * @return the cashback ledger
      */
-    public void addToTotalSpent(final double amount) {
-        this.totalSpent += amount;
-    }
-
-    /**
-     * Retrieves the total spent by the account.
-     *
-     * @return the total spent as a double
-     */
-    public double getTotalSpent() {
-        return totalSpent;
+    public CashbackLedger getCashbackLedger() {
+        return cashbackLedger;
     }
 
     /**
      * Retrieves the plan type of the account.
      *
-     * @return the plan type as a String
+     * @return the plan type
      */
-    public String getPlanType() {
+    public PlanType getPlanType() {
         return planType;
     }
 
@@ -88,7 +94,7 @@ public abstract class Account {
      *
      * @param planType the plan type to set
      */
-    public void setPlanType(final String planType) {
+    public void setPlanType(final PlanType planType) {
         this.planType = planType;
     }
 
@@ -129,19 +135,255 @@ public abstract class Account {
     /**
      * Retrieves the balance of the account.
      *
-     * @return the balance as a double
+     * @return the balance, in the account's currency
      */
-    public final double getBalance() {
+    public final Money getBalance() {
         return balance;
     }
 
     /**
      * Sets the balance of the account.
      *
-     * @param balance the balance to set
+     * @param balance the balance to set, in the account's currency
+     * @throws IllegalArgumentException if the balance is in another currency
+     */
+    public final void setBalance(final Money balance) {
+        requireAccountCurrency(balance);
+        balanceLocks.lock(this);
+        try {
+            this.balance = balance;
+        } finally {
+            balanceLocks.unlock(this);
+        }
+    }
+
+    /**
+     * Adds an amount to the balance.
+     *
+     * @param amount the amount to add, in the account's currency
+     * @throws IllegalArgumentException if the amount is in another currency
+     */
+    public final void credit(final Money amount) {
+        requireAccountCurrency(amount);
+        balanceLocks.lock(this);
+        try {
+            balance = balance.plus(amount);
+        } finally {
+            balanceLocks.unlock(this);
+        }
+    }
+
+    /**
+     * Takes an amount from the balance, even if the balance becomes negative,
+     * as fees and commissions do.
+     *
+     * @param amount the amount to take, in the account's currency
+     * @throws IllegalArgumentException if the amount is in another currency
+     */
+    public final void debit(final Money amount) {
+        requireAccountCurrency(amount);
+        balanceLocks.lock(this);
+        try {
+            balance = balance.minus(amount);
+        } finally {
+            balanceLocks.unlock(this);
+        }
+    }
+
+    /**
+     * Takes an amount from the balance if the balance covers it.
+     *
+     * @param amount the amount to take, in the account's currency
+     * @return whether the amount was taken
+     * @throws IllegalArgumentException if the amount is in another currency
      */
-    public final void setBalance(final double balance) {
-        this.balance = balance;
+    public final boolean tryDebit(final Money amount) {
+        return tryDebit(amount, amount);
+    }
+
+    /**
+     * Takes an amount from the balance if the balance is at least a required amount.
+     *
+     * @param amount   the amount to take, in the account's currency
+     * @param required the least balance the amount may be taken from
+     * @return whether the amount was taken
+     * @throws IllegalArgumentException if an amount is in another currency
+     */
+    public final boolean tryDebit(final Money amount, final Money required) {
+        requireAccountCurrency(amount);
+        requireAccountCurrency(required);
+        balanceLocks.lock(this);
+        try {
+            if (balance.compareTo(required) < 0) {
+                return false;
+            }
+            balance = balance.minus(amount);
+            return true;
+        } finally {
+            balanceLocks.unlock(this);
+        }
+    }
+
+    /**
+     * Takes an amount and its fee from the balance, in the same step, if the balance is
+     * at least a required amount. The fee may take the balance below zero.
+     *
+     * @param amount   the amount to take, in the account's currency
+     * @param fee      the fee taken, in the account's currency
+     * @param required the least balance the amount may be taken from
+     * @return whether the amount and the fee were taken
+     * @throws IllegalArgumentException if an amount is in another currency
+     */
+    public final boolean tryWithdraw(final Money amount, final Money fee,
+                                     final Money required) {
+        requireAccountCurrency(amount);
+        requireAccountCurrency(fee);
+        requireAccountCurrency(required);
+        balanceLocks.lock(this);
+        try {
+            if (balance.compareTo(required) < 0) {
+                return false;
+            }
+            balance = balance.minus(amount).minus(fee);
+            return true;
+        } finally {
+            balanceLocks.unlock(this);
+        }
+    }
+
+    /**
+     * Adds an amount to the balance if the balance is at least a required amount.
+     *
+     * @param amount   the amount to add, in the account's currency
+     * @param required the least balance the amount may be added to
+     * @return whether the amount was added
+     * @throws IllegalArgumentException if an amount is in another currency
+     */
+    public final boolean tryCredit(final Money amount, final Money required) {
+        requireAccountCurrency(amount);
+        requireAccountCurrency(required);
+        balanceLocks.lock(this);
+        try {
+            if (balance.compareTo(required) < 0) {
+                return false;
+            }
+            balance = balance.plus(amount);
+            return true;
+        } finally {
+            balanceLocks.unlock(this);
+        }
+    }
+
+    /**
+     * Takes a payment from the balance if the balance covers it, giving back its cashback
+     * and taking its fee in the same step.
+     *
+     * @param amount   the amount paid, in the account's currency
+     * @param cashback the cashback given back, in the account's currency
+     * @param fee      the fee taken, in the account's currency
+     * @return whether the payment was taken
+     * @throws IllegalArgumentException if an amount is in another currency
+     */
+    public final boolean tryPay(final Money amount, final Money cashback, final Money fee) {
+        requireAccountCurrency(amount);
+        requireAccountCurrency(cashback);
+        requireAccountCurrency(fee);
+        balanceLocks.lock(this);
+        try {
+            if (balance.compareTo(amount) < 0) {
+                return false;
+            }
+            balance = balance.minus(amount).plus(cashback).minus(fee);
+            return true;
+        } finally {
+            balanceLocks.unlock(this);
+        }
+    }
+
+    /**
+     * Moves money between two accounts, as one step, if the sender's balance covers
+     * the amount taken.
+     *
+     * @param from   the sender
+     * @param debit  the amount taken from the sender, in its currency
+     * @param to     the receiver
+     * @param credit the amount given to the receiver, in its currency
+     * @return whether the money was moved
+     * @throws IllegalArgumentException if an amount is in the wrong currency
+     */
+    public static boolean transfer(final Account from, final Money debit,
+                                   final Account to, final Money credit) {
+        from.requireAccountCurrency(debit);
+        to.requireAccountCurrency(credit);
+        from.balanceLocks.lock(from, to);
+        try {
+            if (from.balance.compareTo(debit) < 0) {
+                return false;
+            }
+            from.balance = from.balance.minus(debit);
+            to.balance = to.balance.plus(credit);
+            return true;
+        } finally {
+            from.balanceLocks.unlock(from, to);
+        }
+    }
+
+    /**
+     * Takes an amount from each of several accounts, as one step, if every balance
+     * covers its amount. Balances are checked before any amount is taken, so an
+     * account listed twice only needs to cover each amount on its own.
+     *
+     * @param accounts the accounts
+     * @param amounts  the amount to take from each account, in its currency
+     * @return the position of the first account whose balance does not cover its
+     *         amount, in which case nothing was taken, or -1 if every amount was taken
+     * @throws IllegalArgumentException if an amount is in the wrong currency or the
+     *                                  lists differ in size
+     */
+    public static int debitAll(final List<Account> accounts, final List<Money> amounts) {
+        if (accounts.size() != amounts.size()) {
+            throw new IllegalArgumentException("Mismatch between account count and amounts.");
+        }
+        if (accounts.isEmpty()) {
+            return -1;
+        }
+        for (int i = 0; i < accounts.size(); i++) {
+            accounts.get(i).requireAccountCurrency(amounts.get(i));
+        }
+        BalanceLocks locks = accounts.get(0).balanceLocks;
+        int[] stripes = locks.lockAll(accounts.toArray(new Account[0]));
+        try {
+            for (int i = 0; i < accounts.size(); i++) {
+                if (accounts.get(i).balance.compareTo(amounts.get(i)) < 0) {
+                    return i;
+                }
+            }
+            for (int i = 0; i < accounts.size(); i++) {
+                Account account = accounts.get(i);
+                account.balance = account.balance.minus(amounts.get(i));
+            }
+            return -1;
+        } finally {
+            locks.unlockAll(stripes);
+        }
+    }
+
+    /**
+     * Gets the locks guarding the balances of the run the account belongs to.
+     *
+     * @return the lock table
+     */
+    final BalanceLocks getBalanceLocks() {
+        return balanceLocks;
+    }
+
+    /**
+     * Gets the stripe of the lock guarding the balance.
+     *
+     * @return the stripe
+     */
+    final int getLockStripe() {
+        return lockStripe;
     }
 
     /**
@@ -154,12 +396,15 @@ public abstract class Account {
     }
 
     /**
-     * Sets the currency of the account.
+     * Sets the currency of the account. The balance and minimum balance keep
+     * their amounts and are expressed in the new currency.
      *
      * @param currency the currency to set
      */
     public final void setCurrency(final String currency) {
         this.currency = currency;
+        this.balance = Money.ofUnits(balance.getUnits(), currency);
+        this.minBalance = Money.ofUnits(minBalance.getUnits(), currency);
     }
 
     /**
@@ -192,49 +437,94 @@ public abstract class Account {
     /**
      * Retrieves the minimum balance of the account.
      *
-     * @return the minimum balance as a double
+     * @return the minimum balance, in the account's currency
      */
-    public final double getMinBalance() {
+    public final Money getMinBalance() {
         return minBalance;
     }
 
     /**
      * Sets the minimum balance for the account.
      *
-     * @param minBalance the minimum balance to set
+     * @param minBalance the minimum balance to set, in the account's currency
+     * @throws IllegalArgumentException if the amount is in another currency
      */
-    public final void setMinBalance(final double minBalance) {
+    public final void setMinBalance(final Money minBalance) {
+        requireAccountCurrency(minBalance);
         this.minBalance = minBalance;
     }
 
     /**
      * Deposits an amount into the account.
      *
-     * @param amount the amount to deposit
+     * @param amount the amount to deposit, in the account's currency
      * @throws IllegalArgumentException if the amount is not positive
      */
-    public final void deposit(final double amount) {
-        if (amount <= 0) {
+    public final void deposit(final Money amount) {
+        if (amount.getUnits() <= 0) {
             throw new IllegalArgumentException("Deposit amount must be positive.");
         }
-        this.balance += amount;
+        credit(amount);
     }
 
     /**
      * Retrieves the list of transactions for the account.
      *
-     * @return a list of Transaction objects
+     * @return an unmodifiable list of Transaction objects
      */
     public final List<Transaction> getTransactions() {
-        return transactions;
+        return transactions.getAll();
     }
 
     /**
-     * Adds a transaction to the account.
+     * Retrieves the transactions of the account within a window of timestamps.
+     *
+     * @param startTimestamp the first timestamp of the window, inclusive
+     * @param endTimestamp   the last timestamp of the window, inclusive
+     * @return the matching transactions, in the order they were recorded
+     */
+    public final List<Transaction> getTransactions(final int startTimestamp,
+                                                   final int endTimestamp) {
+        return transactions.getRange(startTimestamp, endTimestamp);
+    }
+
+    /**
+     * Adds a transaction to the account, counting payments to merchants
+     * towards the account's merchant spending totals.
      *
      * @param transaction the Transaction object to add
      */
     public final void addTransaction(final Transaction transaction) {
         this.transactions.add(transaction);
+        if (transaction instanceof Transaction.CardPayment payment
+                && payment.getCommerciant() != null) {
+            merchantSpending.record(payment.getCommerciant(), payment.getAmount(),
+                    payment.getTimestamp());
+        }
+    }
+
+    /**
+     * Computes the total spent at each merchant within a window of timestamps.
+     *
+     * @param startTimestamp the first timestamp of the window, inclusive
+     * @param endTimestamp   the last timestamp of the window, inclusive
+     * @return the total per merchant, in merchant name order
+     */
+    public final Map<String, Money> getMerchantTotals(final int startTimestamp,
+                                                      final int endTimestamp) {
+        return merchantSpending.totals(startTimestamp, endTimestamp);
+    }
+
+    /**
+     * Checks that an amount is in the account's currency.
+     *
+     * @param amount the amount to check
+     * @throws IllegalArgumentException if the amount is in another currency
+     */
+    private void requireAccountCurrency(final Money amount) {
+        if (!amount.isIn(currency)) {
+            throw new IllegalArgumentException("Amount in " + amount.getCurrency()
+                    + " does not match account currency " + currency);
+        }
     }
 }
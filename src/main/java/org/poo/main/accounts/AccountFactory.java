@@ -20,17 +20,25 @@ public final class AccountFactory {
      * @param currency     the currency of the account.
      * @param interestRate the interest rate for savings accounts (ignored for classic accounts).
      * @param user         the owner of the account.
+     * @param registry     the account registry the new account is added to.
      * @return the created account.
      */
     public static Account createAccount(final String type, final String iban, final String currency,
-                                        final double interestRate, final User user) {
+                                        final double interestRate, final User user,
+                                        final AccountRegistry registry) {
+        Account account;
         switch (type.toLowerCase()) {
             case "savings":
-                return new SavingsAccount(iban, currency, interestRate, user);
+                account = new SavingsAccount(iban, currency, interestRate, user,
+                        registry.getBalanceLocks());
+                break;
             case "classic":
-                return new ClassicAccount(iban, currency, user);
+                account = new ClassicAccount(iban, currency, user, registry.getBalanceLocks());
+                break;
             default:
                 throw new IllegalArgumentException("Invalid account type: " + type);
         }
+        registry.register(account);
+        return account;
     }
 }
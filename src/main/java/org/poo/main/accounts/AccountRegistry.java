@@ -0,0 +1,51 @@
+package org.poo.main.accounts;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Bank-wide index of the open accounts, keyed by IBAN.
+ * Kept up to date by the account factory and the account deletion command,
+ * so commands can resolve an IBAN without scanning every user.
+ */
+public final class AccountRegistry {
+    private final Map<String, Account> accountsByIban = new HashMap<>();
+    private final BalanceLocks balanceLocks = new BalanceLocks();
+
+    /**
+     * Registers an account under its IBAN.
+     *
+     * @param account the account to register.
+     */
+    public void register(final Account account) {
+        accountsByIban.put(account.getIBAN(), account);
+    }
+
+    /**
+     * Removes an account from the registry.
+     *
+     * @param account the account to remove.
+     */
+    public void unregister(final Account account) {
+        accountsByIban.remove(account.getIBAN(), account);
+    }
+
+    /**
+     * Retrieves the account with the given IBAN.
+     *
+     * @param iban the IBAN to look up.
+     * @return the matching account, or null if no such account exists.
+     */
+    public Account getAccount(final String iban) {
+        return accountsByIban.get(iban);
+    }
+
+    /**
+     * Gets the locks guarding the balances of the accounts of this registry.
+     *
+     * @return the lock table.
+     */
+    BalanceLocks getBalanceLocks() {
+        return balanceLocks;
+    }
+}
@@ -0,0 +1,72 @@
+package org.poo.main.accounts;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bank-wide index of the account aliases, mapping each alias straight to its account.
+ * Kept up to date by the alias and account deletion commands, so transfers resolve
+ * an alias without scanning every user. Setting an alias again moves it to the
+ * new account. An alias stays known after its account is deleted, or if it was set
+ * for an IBAN with no open account, but then resolves to no account.
+ */
+public final class AliasDirectory {
+    private final Map<String, Account> accountsByAlias = new HashMap<>();
+    private final Map<Account, List<String>> aliasesByAccount = new HashMap<>();
+
+    /**
+     * Points an alias at an account.
+     *
+     * @param alias   the alias to set.
+     * @param account the account the alias refers to, or null if no open account matches.
+     */
+    public void register(final String alias, final Account account) {
+        Account previous = accountsByAlias.put(alias, account);
+        if (previous == account) {
+            return;
+        }
+        if (previous != null) {
+            aliasesByAccount.get(previous).remove(alias);
+        }
+        if (account != null) {
+            aliasesByAccount.computeIfAbsent(account, key -> new ArrayList<>()).add(alias);
+        }
+    }
+
+    /**
+     * Detaches every alias from the given account, so they no longer resolve to it.
+     *
+     * @param account the account whose aliases are detached.
+     */
+    public void unregisterAll(final Account account) {
+        List<String> aliases = aliasesByAccount.remove(account);
+        if (aliases != null) {
+            for (String alias : aliases) {
+                accountsByAlias.put(alias, null);
+            }
+        }
+    }
+
+    /**
+     * Checks whether a name has been set as an alias.
+     *
+     * @param alias the name to check.
+     * @return true if the name is a known alias, even one resolving to no account.
+     */
+    public boolean contains(final String alias) {
+        return accountsByAlias.containsKey(alias);
+    }
+
+    /**
+     * Retrieves the account an alias refers to.
+     *
+     * @param alias the alias to look up.
+     * @return the matching account, or null if the alias is unknown or resolves to
+     *         no account.
+     */
+    public Account lookup(final String alias) {
+        return accountsByAlias.get(alias);
+    }
+}
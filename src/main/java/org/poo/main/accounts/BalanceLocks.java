@@ -0,0 +1,141 @@
+package org.poo.main.accounts;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The striped locks guarding the account balances of one run. Each run has its own
+ * table, owned by its {@link AccountRegistry}, so runs never wait on each other.
+ * Every account maps to one stripe, chosen from the IBAN it was opened with, so the
+ * mapping never changes even if the IBAN does. Several accounts are always locked in
+ * increasing stripe order, and a stripe shared by two of them is locked once, so two
+ * threads locking overlapping sets of accounts cannot deadlock. One or two accounts,
+ * as nearly every balance change has, are locked without allocating.
+ */
+final class BalanceLocks {
+    private static final int STRIPES = 64;
+    /** Folds the high half of an IBAN hash into the low bits that choose the stripe. */
+    private static final int HASH_SPREAD_SHIFT = 16;
+
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+
+    /**
+     * Constructs the lock table of a run.
+     */
+    BalanceLocks() {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Chooses the stripe of an account.
+     *
+     * @param iban the IBAN the account is opened with.
+     * @return the stripe.
+     */
+    static int stripeOf(final String iban) {
+        int hash = iban.hashCode();
+        return Math.floorMod(hash ^ (hash >>> HASH_SPREAD_SHIFT), STRIPES);
+    }
+
+    /**
+     * Locks the stripe of one account.
+     *
+     * @param account the account.
+     * @throws IllegalArgumentException if the account belongs to another run.
+     */
+    void lock(final Account account) {
+        locks[stripeOf(account)].lock();
+    }
+
+    /**
+     * Unlocks the stripe of one account.
+     *
+     * @param account the account passed to {@link #lock(Account)}.
+     */
+    void unlock(final Account account) {
+        locks[account.getLockStripe()].unlock();
+    }
+
+    /**
+     * Locks the stripes of two accounts, the lower stripe first.
+     *
+     * @param first  the first account.
+     * @param second the second account.
+     * @throws IllegalArgumentException if an account belongs to another run.
+     */
+    void lock(final Account first, final Account second) {
+        int low = stripeOf(first);
+        int high = stripeOf(second);
+        if (low > high) {
+            int swap = low;
+            low = high;
+            high = swap;
+        }
+        locks[low].lock();
+        if (high != low) {
+            locks[high].lock();
+        }
+    }
+
+    /**
+     * Unlocks the stripes of two accounts, the higher stripe first.
+     *
+     * @param first  the first account passed to {@link #lock(Account, Account)}.
+     * @param second the second account passed to {@link #lock(Account, Account)}.
+     */
+    void unlock(final Account first, final Account second) {
+        int low = Math.min(first.getLockStripe(), second.getLockStripe());
+        int high = Math.max(first.getLockStripe(), second.getLockStripe());
+        if (high != low) {
+            locks[high].unlock();
+        }
+        locks[low].unlock();
+    }
+
+    /**
+     * Locks the stripes of any number of accounts, in increasing order.
+     *
+     * @param accounts the accounts.
+     * @return the stripes locked, to be passed to {@link #unlockAll(int[])}.
+     * @throws IllegalArgumentException if an account belongs to another run.
+     */
+    int[] lockAll(final Account... accounts) {
+        int[] stripes = new int[accounts.length];
+        for (int i = 0; i < accounts.length; i++) {
+            stripes[i] = stripeOf(accounts[i]);
+        }
+        stripes = Arrays.stream(stripes).sorted().distinct().toArray();
+        for (int stripe : stripes) {
+            locks[stripe].lock();
+        }
+        return stripes;
+    }
+
+    /**
+     * Unlocks stripes, in the reverse order they were locked in.
+     *
+     * @param stripes the stripes returned by {@link #lockAll(Account...)}.
+     */
+    void unlockAll(final int[] stripes) {
+        for (int i = stripes.length - 1; i >= 0; i--) {
+            locks[stripes[i]].unlock();
+        }
+    }
+
+    /**
+     * Gets the stripe of an account of this run.
+     *
+     * @param account the account.
+     * @return the stripe.
+     * @throws IllegalArgumentException if the account belongs to another run.
+     */
+    private int stripeOf(final Account account) {
+        if (account.getBalanceLocks() != this) {
+            throw new IllegalArgumentException(
+                    "Account " + account.getIBAN() + " belongs to another run");
+        }
+        return account.getLockStripe();
+    }
+}
@@ -0,0 +1,72 @@
+package org.poo.main.accounts;
+
+import org.poo.main.MerchantCategory;
+import org.poo.main.Money;
+
+/**
+ * The cashback state of one account: how many payments were made in each merchant
+ * category since its last reward, and the total spent, in RON.
+ * Everything is kept in primitive fields, so recording a payment allocates nothing.
+ * Cashback strategies hold no state of their own and read and update this ledger.
+ */
+public final class CashbackLedger {
+    private static final String SPENT_CURRENCY = "RON";
+
+    private final int[] transactionCounts = new int[MerchantCategory.values().length];
+    private long spentUnits;
+
+    /**
+     * Records a payment in a merchant category.
+     *
+     * @param category the merchant category
+     * @return the number of payments in that category since its counter was last reset
+     */
+    public int recordTransaction(final MerchantCategory category) {
+        return ++transactionCounts[category.ordinal()];
+    }
+
+    /**
+     * Gets the number of payments in a merchant category since its counter was last reset.
+     *
+     * @param category the merchant category
+     * @return the number of payments
+     */
+    public int getTransactionCount(final MerchantCategory category) {
+        return transactionCounts[category.ordinal()];
+    }
+
+    /**
+     * Resets the payment counter of a merchant category.
+     *
+     * @param category the merchant category
+     */
+    public void resetTransactionCount(final MerchantCategory category) {
+        transactionCounts[category.ordinal()] = 0;
+    }
+
+    /**
+     * Adds an amount to the total spent.
+     *
+     * @param amount the amount to add, in RON
+     * @return the new total spent, in RON
+     * @throws IllegalArgumentException if the amount is not in RON
+     * @throws ArithmeticException if the total overflows
+     */
+    public Money addSpent(final Money amount) {
+        if (!amount.isIn(SPENT_CURRENCY)) {
+            throw new IllegalArgumentException("Spending must be recorded in "
+                    + SPENT_CURRENCY + ", got " + amount.getCurrency());
+        }
+        spentUnits = Math.addExact(spentUnits, amount.getUnits());
+        return getTotalSpent();
+    }
+
+    /**
+     * Gets the total spent.
+     *
+     * @return the total spent, in RON
+     */
+    public Money getTotalSpent() {
+        return Money.ofUnits(spentUnits, SPENT_CURRENCY);
+    }
+}
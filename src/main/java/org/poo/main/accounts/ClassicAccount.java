@@ -13,9 +13,11 @@ public class ClassicAccount extends Account {
      * @param iban     the IBAN of the account.
      * @param currency the currency of the account.
      * @param user     the owner of the account.
+     * @param locks    the locks guarding the balances of the run.
      */
-    public ClassicAccount(final String iban, final String currency, final User user) {
-        super(iban, currency, user);
+    ClassicAccount(final String iban, final String currency, final User user,
+                   final BalanceLocks locks) {
+        super(iban, currency, user, locks);
     }
 
     /**
@@ -0,0 +1,160 @@
+package org.poo.main.accounts;
+
+import org.poo.main.Money;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Running spending totals of one account, per merchant.
+ * For every merchant the payments are kept sorted by timestamp, together with the
+ * prefix sums of their amounts in minor units. The total spent at a merchant within
+ * a [start, end] window is the difference of two prefix sums found by binary search,
+ * so a merchant breakdown never visits individual transactions.
+ */
+public final class MerchantSpending {
+    private final Map<String, Series> seriesByMerchant = new TreeMap<>();
+
+    /**
+     * Records a payment to a merchant.
+     *
+     * @param commerciant the merchant paid.
+     * @param amount      the amount paid.
+     * @param timestamp   the timestamp of the payment.
+     * @throws IllegalArgumentException if the amount is in a different currency than
+     *                                  earlier payments to the same merchant.
+     */
+    public void record(final String commerciant, final Money amount, final int timestamp) {
+        seriesByMerchant.computeIfAbsent(commerciant, key -> new Series(amount.getCurrency()))
+                .add(amount, timestamp);
+    }
+
+    /**
+     * Computes the total spent at each merchant paid within a window of timestamps.
+     *
+     * @param startTimestamp the first timestamp of the window, inclusive.
+     * @param endTimestamp   the last timestamp of the window, inclusive.
+     * @return the total per merchant, in merchant name order; merchants not paid within
+     *         the window are left out.
+     */
+    public Map<String, Money> totals(final int startTimestamp, final int endTimestamp) {
+        Map<String, Money> totals = new LinkedHashMap<>();
+        for (Map.Entry<String, Series> entry : seriesByMerchant.entrySet()) {
+            Money total = entry.getValue().total(startTimestamp, endTimestamp);
+            if (total != null) {
+                totals.put(entry.getKey(), total);
+            }
+        }
+        return totals;
+    }
+
+    /**
+     * The payments to one merchant, sorted by timestamp, with their prefix sums.
+     */
+    private static final class Series {
+        private static final int INITIAL_CAPACITY = 8;
+
+        private final String currency;
+        private int[] timestamps = new int[INITIAL_CAPACITY];
+        private long[] prefixUnits = new long[INITIAL_CAPACITY + 1];
+        private int size;
+
+        /**
+         * Constructs an empty Series.
+         *
+         * @param currency the currency of the payments.
+         */
+        Series(final String currency) {
+            this.currency = currency;
+        }
+
+        /**
+         * Adds a payment after every payment with the same or an earlier timestamp.
+         * Adding in timestamp order takes constant amortized time.
+         *
+         * @param amount    the amount paid.
+         * @param timestamp the timestamp of the payment.
+         * @throws IllegalArgumentException if the amount is in a different currency.
+         */
+        void add(final Money amount, final int timestamp) {
+            if (!amount.isIn(currency)) {
+                throw new IllegalArgumentException("Currency mismatch: "
+                        + currency + " and " + amount.getCurrency());
+            }
+            if (size == timestamps.length) {
+                timestamps = Arrays.copyOf(timestamps, size * 2);
+                prefixUnits = Arrays.copyOf(prefixUnits, size * 2 + 1);
+            }
+            int index = size == 0 || timestamps[size - 1] <= timestamp
+                    ? size
+                    : firstAbove(timestamp);
+            System.arraycopy(timestamps, index, timestamps, index + 1, size - index);
+            timestamps[index] = timestamp;
+            for (int i = size + 1; i > index; i--) {
+                prefixUnits[i] = Math.addExact(prefixUnits[i - 1], amount.getUnits());
+            }
+            size++;
+        }
+
+        /**
+         * Computes the total paid within a window of timestamps.
+         *
+         * @param startTimestamp the first timestamp of the window, inclusive.
+         * @param endTimestamp   the last timestamp of the window, inclusive.
+         * @return the total, or null if no payment falls within the window.
+         */
+        Money total(final int startTimestamp, final int endTimestamp) {
+            if (startTimestamp > endTimestamp) {
+                return null;
+            }
+            int from = firstAtLeast(startTimestamp);
+            int to = firstAbove(endTimestamp);
+            if (from >= to) {
+                return null;
+            }
+            return Money.ofUnits(prefixUnits[to] - prefixUnits[from], currency);
+        }
+
+        /**
+         * Finds the first payment at or after a timestamp.
+         *
+         * @param timestamp the timestamp.
+         * @return its position, or size if every payment is earlier.
+         */
+        private int firstAtLeast(final int timestamp) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (timestamps[mid] < timestamp) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * Finds the first payment after a timestamp.
+         *
+         * @param timestamp the timestamp.
+         * @return its position, or size if no payment is later.
+         */
+        private int firstAbove(final int timestamp) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (timestamps[mid] <= timestamp) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -16,12 +16,14 @@ public class SavingsAccount extends Account {
      * @param currency     the currency of the account.
      * @param interestRate the interest rate of the account.
      * @param user         the owner of the account.
+     * @param locks        the locks guarding the balances of the run.
      */
-    public SavingsAccount(final String iban,
-                          final String currency,
-                          final double interestRate,
-                          final User user) {
-        super(iban, currency, user);
+    SavingsAccount(final String iban,
+                   final String currency,
+                   final double interestRate,
+                   final User user,
+                   final BalanceLocks locks) {
+        super(iban, currency, user, locks);
         this.interestRate = interestRate;
     }
 
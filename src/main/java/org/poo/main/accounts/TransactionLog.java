@@ -0,0 +1,148 @@
+package org.poo.main.accounts;
+
+import org.poo.main.Ledger;
+import org.poo.main.Transaction;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The transactions of one account, in the order they were recorded, as ids into the
+ * bank's ledger.
+ * Timestamps almost always arrive in order, but a split payment is recorded when its
+ * last participant accepts it, under the earlier timestamp of its request.
+ * Next to the timestamps, the log keeps their running maximum from the start and
+ * their running minimum from the end, both in primitive arrays. Both are sorted, so
+ * a [start, end] window is bounded with two binary searches: a report visits the
+ * window plus any late entries around it, not the whole history.
+ */
+public final class TransactionLog {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final Ledger ledger;
+    private int[] ids = new int[INITIAL_CAPACITY];
+    private int[] timestamps = new int[INITIAL_CAPACITY];
+    private int[] maxUpTo = new int[INITIAL_CAPACITY];
+    private int[] minFrom = new int[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * Constructs an empty TransactionLog.
+     *
+     * @param ledger the ledger the transactions are recorded in.
+     */
+    public TransactionLog(final Ledger ledger) {
+        this.ledger = ledger;
+    }
+
+    /**
+     * Records a transaction. Recording in timestamp order takes constant amortized time;
+     * a late transaction also updates the entries it arrives after.
+     *
+     * @param transaction the transaction to record.
+     */
+    public void add(final Transaction transaction) {
+        int timestamp = transaction.getTimestamp();
+        if (size == timestamps.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+            timestamps = Arrays.copyOf(timestamps, size * 2);
+            maxUpTo = Arrays.copyOf(maxUpTo, size * 2);
+            minFrom = Arrays.copyOf(minFrom, size * 2);
+        }
+        ids[size] = ledger.record(transaction);
+        timestamps[size] = timestamp;
+        maxUpTo[size] = size == 0 ? timestamp : Math.max(maxUpTo[size - 1], timestamp);
+        minFrom[size] = timestamp;
+        for (int i = size - 1; i >= 0 && minFrom[i] > timestamp; i--) {
+            minFrom[i] = timestamp;
+        }
+        size++;
+    }
+
+    /**
+     * Retrieves every transaction, in the order they were recorded.
+     *
+     * @return an unmodifiable view of the transactions.
+     */
+    public List<Transaction> getAll() {
+        return new AbstractList<>() {
+            @Override
+            public Transaction get(final int index) {
+                if (index < 0 || index >= size) {
+                    throw new IndexOutOfBoundsException(index);
+                }
+                return ledger.get(ids[index]);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    /**
+     * Retrieves the transactions whose timestamp lies in the given window.
+     *
+     * @param startTimestamp the first timestamp of the window, inclusive.
+     * @param endTimestamp   the last timestamp of the window, inclusive.
+     * @return the transactions in the window, in the order they were recorded.
+     */
+    public List<Transaction> getRange(final int startTimestamp, final int endTimestamp) {
+        int from = firstAtLeast(maxUpTo, size, startTimestamp);
+        int to = firstAbove(minFrom, size, endTimestamp);
+        List<Transaction> range = new ArrayList<>(Math.max(to - from, 0));
+        for (int i = from; i < to; i++) {
+            if (timestamps[i] >= startTimestamp && timestamps[i] <= endTimestamp) {
+                range.add(ledger.get(ids[i]));
+            }
+        }
+        return range;
+    }
+
+    /**
+     * Finds the first position of a sorted array holding at least a value.
+     *
+     * @param sorted the sorted array.
+     * @param size   the number of used positions.
+     * @param value  the value.
+     * @return the position, or size if every value is smaller.
+     */
+    private static int firstAtLeast(final int[] sorted, final int size, final int value) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Finds the first position of a sorted array holding more than a value.
+     *
+     * @param sorted the sorted array.
+     * @param size   the number of used positions.
+     * @param value  the value.
+     * @return the position, or size if no value is larger.
+     */
+    private static int firstAbove(final int[] sorted, final int size, final int value) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] <= value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -7,7 +7,7 @@ package org.poo.main.cards;
 public class Card {
     private final String cardNumber; // The unique number of the card.
     private final String type; // The type of the card (e.g., "normal", "one-time").
-    private String status; // The current status of the card.
+    private CardStatus status; // The current status of the card.
 
     /**
      * Constructs a new card with the specified card number and type.
@@ -18,7 +18,7 @@ public class Card {
      */
     public Card(final String cardNumber, final String type) {
         this.cardNumber = cardNumber;
-        this.status = "active"; // Default status
+        this.status = CardStatus.ACTIVE; // Default status
         this.type = type;
     }
 
@@ -34,12 +34,21 @@ public class Card {
     /**
      * Returns the current status of the card.
      *
-     * @return the card status ("active", "frozen", or "warning").
+     * @return the card status.
      */
-    public String getStatus() {
+    public CardStatus getStatus() {
         return status;
     }
 
+    /**
+     * Checks whether the card is frozen.
+     *
+     * @return true if the card is frozen.
+     */
+    public boolean isFrozen() {
+        return status == CardStatus.FROZEN;
+    }
+
     /**
      * Returns the type of the card.
      *
@@ -53,13 +62,13 @@ public class Card {
      * Updates the card's status to "frozen".
      */
     public void frozen() {
-        status = "frozen";
+        status = CardStatus.FROZEN;
     }
 
     /**
      * Updates the card's status to "warning".
      */
     public void warning() {
-        status = "warning";
+        status = CardStatus.WARNING;
     }
 }
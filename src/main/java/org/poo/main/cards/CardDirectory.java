@@ -0,0 +1,66 @@
+package org.poo.main.cards;
+
+import org.poo.main.User;
+import org.poo.main.accounts.Account;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Bank-wide index of the issued cards, keyed by card number.
+ * Each entry resolves the card together with its account and owner,
+ * so card based commands do not have to scan every user's accounts.
+ */
+public final class CardDirectory {
+    private final Map<String, Entry> entriesByNumber = new HashMap<>();
+
+    /**
+     * A card together with the account it is attached to and the account's owner.
+     *
+     * @param card    the card.
+     * @param account the account the card belongs to.
+     * @param owner   the owner of the account.
+     */
+    public record Entry(Card card, Account account, User owner) {
+    }
+
+    /**
+     * Registers a card issued for the given account.
+     *
+     * @param card    the card to register.
+     * @param account the account the card is attached to.
+     */
+    public void register(final Card card, final Account account) {
+        entriesByNumber.put(card.getCardNumber(), new Entry(card, account, account.getOwner()));
+    }
+
+    /**
+     * Removes a card from the directory.
+     *
+     * @param cardNumber the number of the card to remove.
+     */
+    public void unregister(final String cardNumber) {
+        entriesByNumber.remove(cardNumber);
+    }
+
+    /**
+     * Removes every card attached to the given account.
+     *
+     * @param account the account whose cards are removed.
+     */
+    public void unregisterAll(final Account account) {
+        for (Card card : account.getCards()) {
+            entriesByNumber.remove(card.getCardNumber());
+        }
+    }
+
+    /**
+     * Retrieves the entry for the given card number.
+     *
+     * @param cardNumber the card number to look up.
+     * @return the matching entry, or null if no such card exists.
+     */
+    public Entry lookup(final String cardNumber) {
+        return entriesByNumber.get(cardNumber);
+    }
+}
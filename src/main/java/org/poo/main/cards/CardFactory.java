@@ -1,6 +1,7 @@
 package org.poo.main.cards;
 
-import org.poo.utils.Utils;
+import org.poo.main.accounts.Account;
+import org.poo.utils.IdGenerator;
 
 /**
  * Factory class for creating Card objects.
@@ -18,11 +19,12 @@ public class CardFactory {
      * Creates a card based on the provided type.
      *
      * @param type the type of card to create ("one-time" or "normal").
+     * @param ids  the generator of the card number.
      * @return a new Card object of the specified type.
      * @throws IllegalArgumentException if the card type is unknown.
      */
-    public static Card createCard(final String type) {
-        String cardNumber = Utils.generateCardNumber();
+    public static Card createCard(final String type, final IdGenerator ids) {
+        String cardNumber = ids.generateCardNumber();
         switch (type) {
             case "one-time":
                 return new OneTimeCard(cardNumber);
@@ -32,4 +34,22 @@ public class CardFactory {
                 throw new IllegalArgumentException("Unknown card type: " + type);
         }
     }
+
+    /**
+     * Creates a card, attaches it to the account and records it in the card directory.
+     *
+     * @param type      the type of card to create ("one-time" or "normal").
+     * @param account   the account the card is issued for.
+     * @param directory the card directory the new card is added to.
+     * @param ids       the generator of the card number.
+     * @return the issued card.
+     * @throws IllegalArgumentException if the card type is unknown.
+     */
+    public static Card issueCard(final String type, final Account account,
+                                 final CardDirectory directory, final IdGenerator ids) {
+        Card card = createCard(type, ids);
+        account.addCard(card);
+        directory.register(card, account);
+        return card;
+    }
 }
@@ -0,0 +1,30 @@
+package org.poo.main.cards;
+
+/**
+ * The states a card can be in.
+ */
+public enum CardStatus {
+    ACTIVE("active"),
+    WARNING("warning"),
+    FROZEN("frozen");
+
+    private final String name;
+
+    /**
+     * Constructs a CardStatus.
+     *
+     * @param name the name of the status, as used in the output
+     */
+    CardStatus(final String name) {
+        this.name = name;
+    }
+
+    /**
+     * Gets the name of the status, as used in the output.
+     *
+     * @return the status name
+     */
+    public String getName() {
+        return name;
+    }
+}
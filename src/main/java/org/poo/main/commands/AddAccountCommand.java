@@ -1,12 +1,13 @@
 package org.poo.main.commands;
 
+import org.poo.main.Money;
 import org.poo.main.Transaction;
 import org.poo.main.User;
+import org.poo.main.UserDirectory;
 import org.poo.main.accounts.Account;
 import org.poo.main.accounts.AccountFactory;
-import org.poo.utils.Utils;
-
-import java.util.List;
+import org.poo.main.accounts.AccountRegistry;
+import org.poo.utils.IdGenerator;
 
 /**
  * Command to add a new account for a user.
@@ -18,7 +19,9 @@ public class AddAccountCommand implements Command {
     private final String accountType;
     private final int timestamp;
     private final double interestRate;
-    private final List<User> users;
+    private final UserDirectory users;
+    private final AccountRegistry accountRegistry;
+    private final IdGenerator ids;
 
     /**
      * Constructs the AddAccountCommand.
@@ -28,20 +31,26 @@ public class AddAccountCommand implements Command {
      * @param accountType  the type of the account ("classic" or "savings").
      * @param timestamp    the time of account creation.
      * @param interestRate the interest rate for savings accounts.
-     * @param users        the list of users to search for the target user.
+     * @param users        the directory used to find the target user.
+     * @param accountRegistry the registry the new account is added to.
+     * @param ids          the generator of the new IBAN.
      */
     public AddAccountCommand(final String email,
                              final String currency,
                              final String accountType,
                              final int timestamp,
                              final double interestRate,
-                             final List<User> users) {
+                             final UserDirectory users,
+                             final AccountRegistry accountRegistry,
+                             final IdGenerator ids) {
         this.email = email;
         this.currency = currency;
         this.accountType = accountType;
         this.timestamp = timestamp;
         this.interestRate = interestRate;
         this.users = users;
+        this.accountRegistry = accountRegistry;
+        this.ids = ids;
     }
 
     /**
@@ -51,22 +60,16 @@ public class AddAccountCommand implements Command {
      */
     @Override
     public void execute() {
-        User user = null;
-        for (User u : users) {
-            if (u.getEmail().equals(email)) {
-                user = u;
-                break;
-            }
-        }
+        User user = users.findByEmail(email);
 
         if (user == null) {
             throw new IllegalArgumentException("User not found: " + email);
         }
 
-        String iban = Utils.generateIBAN();
+        String iban = ids.generateIBAN();
         Account account = AccountFactory.createAccount(accountType, iban, currency,
-                interestRate, user);
-        account.setBalance(0.0);
+                interestRate, user, accountRegistry);
+        account.setBalance(Money.zero(account.getCurrency()));
         user.addAccount(account);
 
         Transaction transaction = Transaction.addAccountTransaction(
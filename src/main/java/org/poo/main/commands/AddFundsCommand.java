@@ -1,9 +1,8 @@
 package org.poo.main.commands;
 
-import org.poo.main.User;
+import org.poo.main.Money;
 import org.poo.main.accounts.Account;
-
-import java.util.List;
+import org.poo.main.accounts.AccountRegistry;
 
 /**
  * Command to add funds to a specific account.
@@ -13,7 +12,7 @@ public class AddFundsCommand implements Command {
     private final String accountIBAN;
     private final double amount;
     private final int timestamp;
-    private final List<User> users;
+    private final AccountRegistry accountRegistry;
 
     /**
      * Constructs the AddFundsCommand.
@@ -21,15 +20,15 @@ public class AddFundsCommand implements Command {
      * @param accountIBAN the IBAN of the account to add funds to.
      * @param amount      the amount to be added to the account.
      * @param timestamp   the time of the fund addition.
-     * @param users       the list of users to search for the account.
+     * @param accountRegistry the registry used to resolve the account.
      */
     public AddFundsCommand(final String accountIBAN,
                            final double amount, final int timestamp,
-                           final List<User> users) {
+                           final AccountRegistry accountRegistry) {
         this.accountIBAN = accountIBAN;
         this.amount = amount;
         this.timestamp = timestamp;
-        this.users = users;
+        this.accountRegistry = accountRegistry;
     }
 
     /**
@@ -37,25 +36,13 @@ public class AddFundsCommand implements Command {
      */
     @Override
     public void execute() {
-        Account account = null;
-
-        for (User user : users) {
-            for (Account acc : user.getAccounts()) {
-                if (acc.getIBAN().equals(accountIBAN)) {
-                    account = acc;
-                    break;
-                }
-            }
-            if (account != null) {
-                break;
-            }
-        }
+        Account account = accountRegistry.getAccount(accountIBAN);
 
         if (account == null) {
             throw new IllegalArgumentException("Account not found: " + accountIBAN);
         }
 
-        account.setBalance(account.getBalance() + amount);
+        account.credit(Money.of(amount, account.getCurrency()));
 //        if(timestamp == 7 ){
 //            System.out.println(account.getOwner().getFirstName() + " " + account.getBalance());
 //        }
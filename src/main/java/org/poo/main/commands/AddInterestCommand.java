@@ -1,12 +1,11 @@
 package org.poo.main.commands;
 
+import org.poo.main.Money;
 import org.poo.main.Transaction;
-import org.poo.main.User;
 import org.poo.main.accounts.Account;
+import org.poo.main.accounts.AccountRegistry;
 import org.poo.main.accounts.SavingsAccount;
 
-import java.util.List;
-
 /**
  * Command to add interest to a savings account.
  */
@@ -14,20 +13,21 @@ public class AddInterestCommand implements Command {
     private static final double PERCENTAGE_FACTOR = 100.0; // Avoid magic number
     private final String accountIBAN;
     private final int timestamp;
-    private final List<User> users;
+    private final AccountRegistry accountRegistry;
 
     /**
      * Constructs an AddInterestCommand.
      *
      * @param accountIBAN the IBAN of the account to add interest to.
      * @param timestamp   the time of interest addition.
-     * @param users       the list of users to search for the account.
+     * @param accountRegistry the registry used to resolve the account.
      */
     public AddInterestCommand(final String accountIBAN,
-                              final int timestamp, final List<User> users) {
+                              final int timestamp,
+                              final AccountRegistry accountRegistry) {
         this.accountIBAN = accountIBAN;
         this.timestamp = timestamp;
-        this.users = users;
+        this.accountRegistry = accountRegistry;
     }
 
     /**
@@ -36,19 +36,7 @@ public class AddInterestCommand implements Command {
      */
     @Override
     public void execute() {
-        Account targetAccount = null;
-
-        for (User user : users) {
-            for (Account account : user.getAccounts()) {
-                if (account.getIBAN().equals(accountIBAN)) {
-                    targetAccount = account;
-                    break;
-                }
-            }
-            if (targetAccount != null) {
-                break;
-            }
-        }
+        Account targetAccount = accountRegistry.getAccount(accountIBAN);
 
         if (targetAccount == null) {
             throw new IllegalArgumentException("Account not found for IBAN: " + accountIBAN);
@@ -59,12 +47,12 @@ public class AddInterestCommand implements Command {
         }
 
         double interestRate = savingsAccount.getInterestRate();
-        double interestAmount = targetAccount.getBalance() * interestRate;
+        Money interestAmount = targetAccount.getBalance().times(interestRate);
 
-        targetAccount.setBalance(targetAccount.getBalance() + interestAmount);
+        targetAccount.credit(interestAmount);
         Transaction transaction = Transaction.
                 addInterestTransaction("Interest rate income",
-                        interestAmount, targetAccount.getCurrency(), timestamp);
+                        interestAmount, timestamp);
         targetAccount.addTransaction(transaction);
         targetAccount.getOwner().addTransaction(transaction);
 
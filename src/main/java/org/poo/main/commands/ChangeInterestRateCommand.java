@@ -1,17 +1,15 @@
 package org.poo.main.commands;
 
 import org.poo.main.Transaction;
-import org.poo.main.User;
 import org.poo.main.accounts.Account;
+import org.poo.main.accounts.AccountRegistry;
 import org.poo.main.accounts.SavingsAccount;
 
-import java.util.List;
-
 public class ChangeInterestRateCommand implements Command {
     private final int timestamp;
     private final double newInterestRate;
     private final String accountIban;
-    private final List<User> users;
+    private final AccountRegistry accountRegistry;
 
     /**
      * Constructs a ChangeInterestRateCommand.
@@ -19,14 +17,15 @@ public class ChangeInterestRateCommand implements Command {
      * @param timestamp       the time the command is executed.
      * @param newInterestRate the new interest rate to be set.
      * @param accountIban     the IBAN of the account.
-     * @param users           the list of users to search for the account.
+     * @param accountRegistry the registry used to resolve the account.
      */
     public ChangeInterestRateCommand(final int timestamp, final double newInterestRate,
-                                     final String accountIban, final List<User> users) {
+                                     final String accountIban,
+                                     final AccountRegistry accountRegistry) {
         this.timestamp = timestamp;
         this.newInterestRate = newInterestRate;
         this.accountIban = accountIban;
-        this.users = users;
+        this.accountRegistry = accountRegistry;
     }
 
     /**
@@ -35,16 +34,7 @@ public class ChangeInterestRateCommand implements Command {
      */
     @Override
     public void execute() {
-        Account targetAccount = null;
-
-        for (User user : users) {
-            for (Account account : user.getAccounts()) {
-                if (account.getIBAN().equals(accountIban)) {
-                    targetAccount = account;
-                    break;
-                }
-            }
-        }
+        Account targetAccount = accountRegistry.getAccount(accountIban);
 
         if (targetAccount == null) {
             throw new IllegalArgumentException("Account not found for IBAN: " + accountIban);
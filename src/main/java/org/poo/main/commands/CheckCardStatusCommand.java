@@ -1,14 +1,13 @@
 package org.poo.main.commands;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.poo.main.Money;
 import org.poo.main.Transaction;
-import org.poo.main.User;
 import org.poo.main.accounts.Account;
 import org.poo.main.cards.Card;
-
-import java.util.List;
+import org.poo.main.cards.CardDirectory;
+import org.poo.main.output.JsonContext;
 
 /**
  * Command to check the status of a card and update it based on account balance.
@@ -17,7 +16,7 @@ public final class CheckCardStatusCommand implements Command {
     private static final int WARNING_THRESHOLD = 30;
     private final String cardNumber;
     private final int timestamp;
-    private final List<User> users;
+    private final CardDirectory cardDirectory;
     private final ArrayNode output;
 
     /**
@@ -25,14 +24,14 @@ public final class CheckCardStatusCommand implements Command {
      *
      * @param cardNumber the card number to check.
      * @param timestamp  the current timestamp of the command.
-     * @param users      the list of users in the system.
+     * @param cardDirectory the directory used to resolve the card.
      * @param output     the output array to store results.
      */
     public CheckCardStatusCommand(final String cardNumber, final int timestamp,
-                                  final List<User> users, final ArrayNode output) {
+                                  final CardDirectory cardDirectory, final ArrayNode output) {
         this.cardNumber = cardNumber;
         this.timestamp = timestamp;
-        this.users = users;
+        this.cardDirectory = cardDirectory;
         this.output = output;
     }
 
@@ -41,43 +40,31 @@ public final class CheckCardStatusCommand implements Command {
      */
     @Override
     public void execute() {
-        Card card = null;
-        User user = null;
-        Account account = null;
-
-        for (User user1 : users) {
-            for (Account account1 : user1.getAccounts()) {
-                for (Card card1 : account1.getCards()) {
-                    if (card1.getCardNumber().equals(cardNumber)) {
-                        card = card1;
-                        user = user1;
-                        account = account1;
-                        break;
-                    }
-                }
-            }
-        }
-
-        if (card == null) {
+        CardDirectory.Entry entry = cardDirectory.lookup(cardNumber);
+        if (entry == null) {
             addErrorToOutput("Card not found");
             return;
         }
+        Card card = entry.card();
+        Account account = entry.account();
 
-        double balance = account.getBalance();
-        double minBalance = account.getMinBalance();
+        Money balance = account.getBalance();
+        Money minBalance = account.getMinBalance();
+        Money warningThreshold = Money.of(WARNING_THRESHOLD, account.getCurrency());
 
-        if (balance - minBalance <= WARNING_THRESHOLD && !card.getStatus().equals("frozen")) {
+        if (balance.minus(minBalance).compareTo(warningThreshold) <= 0
+                && !card.isFrozen()) {
             Transaction transaction = Transaction.addAccountTransaction(
                     timestamp,
                     "You have reached the minimum amount of funds, the card will be frozen",
                     account.getIBAN(),
                     account.getCurrency()
             );
-            user.addTransaction(transaction);
+            entry.owner().addTransaction(transaction);
             card.warning();
         }
 
-        if (balance <= minBalance) {
+        if (balance.compareTo(minBalance) <= 0) {
             card.frozen();
         }
     }
@@ -88,11 +75,10 @@ public final class CheckCardStatusCommand implements Command {
      * @param description the error description.
      */
     private void addErrorToOutput(final String description) {
-        ObjectMapper mapper = new ObjectMapper();
-        ObjectNode commandOutput = mapper.createObjectNode();
+        ObjectNode commandOutput = JsonContext.objectNode();
         commandOutput.put("command", "checkCardStatus");
 
-        ObjectNode outputDetails = mapper.createObjectNode();
+        ObjectNode outputDetails = JsonContext.objectNode();
         outputDetails.put("timestamp", timestamp);
         outputDetails.put("description", description);
 
@@ -2,19 +2,24 @@ package org.poo.main.commands;
 
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import org.poo.fileio.CommandInput;
-import org.poo.main.Commerciant;
+import org.poo.main.BankContext;
 import org.poo.main.CurrencyConverter;
 import org.poo.main.ExchangeRate;
-import org.poo.main.User;
+import org.poo.main.MerchantCatalog;
+import org.poo.main.Money;
+import org.poo.main.UserDirectory;
+import org.poo.main.accounts.Account;
+import org.poo.main.accounts.AccountRegistry;
+import org.poo.main.accounts.AliasDirectory;
+import org.poo.main.cards.CardDirectory;
 import org.poo.main.commandsPhase2.*;
 import org.poo.main.splitpayments2.AcceptSplitPaymentCommand;
 import org.poo.main.splitpayments2.RejectSplitPaymentCommand;
 import org.poo.main.splitpayments2.SplitPaymentStatus;
+import org.poo.utils.IdGenerator;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Factory class for creating command instances based on input.
@@ -31,21 +36,25 @@ public final class CommandFactory {
     /**
      * Creates and returns the appropriate command object based on the input.
      *
-     * @param input             the command input data.
-     * @param exchange          the list of exchange rates.
-     * @param users             the list of users in the system.
-     * @param currencyConverter the currency converter utility.
-     * @param output            the output array for storing results.
+     * Converting commands use the rates in effect at the command timestamp.
+     *
+     * @param input   the command input data.
+     * @param context the run the command belongs to.
+     * @param output  the output array the command adds its results to.
      * @return the created command object.
      */
-    public static Command getCommand(final CommandInput input,
-                                     final List<ExchangeRate> exchange,
-                                     final List<User> users,
-                                     final CurrencyConverter currencyConverter,
-                                     final List<Commerciant> commerciants,
-                                     final ArrayNode output,
-                                     final List<SplitPaymentStatus> activeTransactions) {
-        final Map<String, Double> commerciantTotals = new HashMap<>();
+    public static Command getCommand(final CommandInput input, final BankContext context,
+                                     final ArrayNode output) {
+        final List<ExchangeRate> exchange = context.getExchangeRates();
+        final UserDirectory users = context.getUsers();
+        final CurrencyConverter currencyConverter = context.getCurrencyConverter();
+        final MerchantCatalog merchantCatalog = context.getMerchantCatalog();
+        final List<SplitPaymentStatus> activeTransactions = context.getActiveTransactions();
+        final AccountRegistry accountRegistry = context.getAccountRegistry();
+        final CardDirectory cardDirectory = context.getCardDirectory();
+        final AliasDirectory aliasDirectory = context.getAliasDirectory();
+        final IdGenerator ids = context.getIds();
+        final CurrencyConverter ratesAtCommand = currencyConverter.at(input.getTimestamp());
 
 
         switch (input.getCommand()) {
@@ -57,7 +66,9 @@ public final class CommandFactory {
                         input.getTimestamp(),
                         "savings".equalsIgnoreCase(input.getAccountType())
                                 ? input.getInterestRate() : 0,
-                        users
+                        users,
+                        accountRegistry,
+                        ids
                 );
             case "printUsers":
                 return new PrintUsersCommand(
@@ -72,7 +83,10 @@ public final class CommandFactory {
                         input.getAccount(),
                         "normal",
                         input.getTimestamp(),
-                        users
+                        users,
+                        accountRegistry,
+                        cardDirectory,
+                        ids
                 );
 
             case "createOneTimeCard":
@@ -81,7 +95,10 @@ public final class CommandFactory {
                         input.getAccount(),
                         "one-time",
                         input.getTimestamp(),
-                        users
+                        users,
+                        accountRegistry,
+                        cardDirectory,
+                        ids
                 );
 
             case "addFunds":
@@ -89,7 +106,7 @@ public final class CommandFactory {
                         input.getAccount(),
                         input.getAmount(),
                         input.getTimestamp(),
-                        users
+                        accountRegistry
                 );
 
             case "deleteAccount":
@@ -98,14 +115,17 @@ public final class CommandFactory {
                         input.getTimestamp(),
                         input.getEmail(),
                         users,
-                        output
+                        output,
+                        accountRegistry,
+                        cardDirectory,
+                        aliasDirectory
                 );
 
             case "deleteCard":
                 return new DeleteCardCommand(
                         input.getCardNumber(),
                         input.getTimestamp(),
-                        users
+                        cardDirectory
                 );
 
             case "setMinimumBalance":
@@ -113,34 +133,23 @@ public final class CommandFactory {
                         input.getAmount(),
                         input.getAccount(),
                         input.getTimestamp(),
-                        users
+                        accountRegistry
                 );
 
             case "payOnline":
-                CashbackManager cashbackManager = new CashbackManager();
-                Commerciant commerciant = commerciants.stream()
-                        .filter(c -> c.getName().equals(input.getCommerciant()))
-                        .findFirst()
-                        .orElse(null);
-
-                CashbackStrategy strategy = (commerciant != null)
-                        ? cashbackManager.getStrategy(commerciant.getType())
-                        : new NoCashbackStrategy();
-
                 return new PayOnlineCommand(
                         input.getCardNumber(),
                         input.getAmount(),
                         input.getCurrency(),
                         input.getTimestamp(),
                         input.getDescription(),
-                        input.getCommerciant(),
+                        merchantCatalog.findByName(input.getCommerciant()),
                         input.getEmail(),
-                        users,
                         exchange,
-                        currencyConverter,
+                        ratesAtCommand,
                         output,
-                        commerciants,
-                        strategy
+                        cardDirectory,
+                        ids
                 );
 
 
@@ -151,8 +160,9 @@ public final class CommandFactory {
                         input.getReceiver(),
                         input.getTimestamp(),
                         input.getDescription(),
-                        currencyConverter,
-                        users
+                        ratesAtCommand,
+                        accountRegistry,
+                        aliasDirectory
                 );
 
             case "setAlias":
@@ -160,7 +170,9 @@ public final class CommandFactory {
                         input.getEmail(),
                         input.getAlias(),
                         input.getAccount(),
-                        users
+                        users,
+                        accountRegistry,
+                        aliasDirectory
                 );
 
             case "printTransactions":
@@ -175,7 +187,7 @@ public final class CommandFactory {
                 return new CheckCardStatusCommand(
                         input.getCardNumber(),
                         input.getTimestamp(),
-                        users,
+                        cardDirectory,
                         output
                 );
 
@@ -184,7 +196,7 @@ public final class CommandFactory {
                         input.getTimestamp(),
                         input.getInterestRate(),
                         input.getAccount(),
-                        users
+                        accountRegistry
                 );
 
             case "splitPayment":
@@ -194,38 +206,41 @@ public final class CommandFactory {
                 // Mapăm IBAN-urile la email-urile utilizatorilor
                 List<String> userEmails = new ArrayList<>();
                 for (String iban : ibanList) {
-                    for (User user : users) {
-                        if (user.getAccounts().stream().anyMatch(account
-                                -> account.getIBAN().equals(iban))) {
-                            userEmails.add(user.getEmail());
-                            break; // Trecem la următorul IBAN
-                        }
+                    Account account = accountRegistry.getAccount(iban);
+                    if (account != null) {
+                        userEmails.add(account.getOwner().getEmail());
+                    }
+                }
+                Money splitAmount = Money.of(input.getAmount(), input.getCurrency());
+                List<Money> splitShares = null;
+                if (input.getAmountForUsers() != null) {
+                    splitShares = new ArrayList<>(input.getAmountForUsers().size());
+                    for (double share : input.getAmountForUsers()) {
+                        splitShares.add(Money.of(share, input.getCurrency()));
                     }
                 }
                 SplitPaymentStatus status = new SplitPaymentStatus(
                         transactionId,
                         userEmails,
                         input.getTimestamp(),
-                        input.getAmount(),
-                        input.getCurrency(),
+                        splitAmount,
                         input.getSplitPaymentType(),
                         input.getAccounts(),
-                        input.getAmountForUsers(),
+                        splitShares,
                         users,
-                        currencyConverter
+                        ratesAtCommand
                 );
 
                 activeTransactions.add(status);
                 //System.out.println(input.getTimestamp());
                 return new SplitPaymentCommand(
                         input.getTimestamp(),
-                        input.getAmount(),
-                        input.getCurrency(),
+                        splitAmount,
                         input.getSplitPaymentType(), // Adăugat
                         input.getAccounts(),
-                        input.getAmountForUsers(),
-                        users,
-                        currencyConverter,
+                        splitShares,
+                        accountRegistry,
+                        ratesAtCommand,
                         status
 
                 );
@@ -238,7 +253,8 @@ public final class CommandFactory {
                         input.getTimestamp(), // Timestamp-ul comenzii
                         activeTransactions,
                         users,
-                        currencyConverter// Lista tranzacțiilor active
+                        ratesAtCommand, // Lista tranzacțiilor active
+                        accountRegistry
                 );
 
             case "rejectSplitPayment":
@@ -255,7 +271,7 @@ public final class CommandFactory {
                         input.getStartTimestamp(),
                         input.getEndTimestamp(),
                         input.getAccount(),
-                        users,
+                        accountRegistry,
                         output
                 );
 
@@ -265,7 +281,7 @@ public final class CommandFactory {
                         input.getStartTimestamp(),
                         input.getEndTimestamp(),
                         input.getAccount(),
-                        users,
+                        accountRegistry,
                         output
                 );
 
@@ -273,21 +289,29 @@ public final class CommandFactory {
                 return new AddInterestCommand(
                         input.getAccount(),
                         input.getTimestamp(),
-                        users
+                        accountRegistry
                 );
             case "cashWithdrawal":
                 return new CashWithdrawalCommand(input.getCardNumber(),
                         input.getAmount(), input.getEmail(),
                         input.getLocation(), input.getTimestamp(),
-                        users, currencyConverter);
+                        users, ratesAtCommand, cardDirectory);
             case "withdrawSavings":
                 return new WithdrawSavingsCommand(input.getAccount(),
                         input.getAmount(), input.getCurrency(),
-                        input.getTimestamp(), users, currencyConverter);
+                        input.getTimestamp(), accountRegistry, ratesAtCommand);
             case "upgradePlan":
                 return new UpgradePlanCommand(input.getNewPlanType(),
                         input.getAccount(), input.getTimestamp(),
-                        users, currencyConverter);
+                        accountRegistry, ratesAtCommand);
+            case "updateExchangeRate":
+                return new UpdateExchangeRateCommand(
+                        input.getFrom(),
+                        input.getTo(),
+                        input.getRate(),
+                        input.getTimestamp(),
+                        currencyConverter
+                );
             default:
                 throw new IllegalArgumentException("Unknown command: " + input.getCommand());
         }
@@ -2,11 +2,13 @@ package org.poo.main.commands;
 
 import org.poo.main.Transaction;
 import org.poo.main.User;
+import org.poo.main.UserDirectory;
 import org.poo.main.accounts.Account;
+import org.poo.main.accounts.AccountRegistry;
 import org.poo.main.cards.Card;
+import org.poo.main.cards.CardDirectory;
 import org.poo.main.cards.CardFactory;
-
-import java.util.List;
+import org.poo.utils.IdGenerator;
 
 /**
  * Command for creating a card linked to a user's account.
@@ -17,7 +19,10 @@ public class CreateCardCommand implements Command {
     private final String accountIBAN;
     private final String cardType;
     private final int timestamp;
-    private final List<User> users;
+    private final UserDirectory users;
+    private final AccountRegistry accountRegistry;
+    private final CardDirectory cardDirectory;
+    private final IdGenerator ids;
 
     /**
      * Constructor for CreateCardCommand.
@@ -26,15 +31,24 @@ public class CreateCardCommand implements Command {
      * @param accountIBAN the IBAN of the account linked to the card.
      * @param cardType    the type of card (e.g., normal, one-time).
      * @param timestamp   the time when the card is created.
-     * @param users       the list of users in the system.
+     * @param users       the directory of users in the system.
+     * @param accountRegistry the registry used to resolve the account.
+     * @param cardDirectory   the directory the new card is added to.
+     * @param ids             the generator of the card number.
      */
     public CreateCardCommand(final String email, final String accountIBAN, final String cardType,
-                             final int timestamp, final List<User> users) {
+                             final int timestamp, final UserDirectory users,
+                             final AccountRegistry accountRegistry,
+                             final CardDirectory cardDirectory,
+                             final IdGenerator ids) {
         this.email = email;
         this.accountIBAN = accountIBAN;
         this.cardType = cardType;
         this.timestamp = timestamp;
         this.users = users;
+        this.accountRegistry = accountRegistry;
+        this.cardDirectory = cardDirectory;
+        this.ids = ids;
     }
 
     /**
@@ -42,30 +56,16 @@ public class CreateCardCommand implements Command {
      */
     @Override
     public void execute() {
-        User user = null;
-        for (User u : users) {
-            //System.out.println(u.getEmail() + " " + email);
-            if (u.getEmail().equals(email)) {
-                user = u;
-                break;
-            }
-        }
+        User user = users.findByEmail(email);
         if (user == null) {
             return;
         }
 
-        Account account = null;
-        for (Account a : user.getAccounts()) {
-            if (a.getIBAN().equals(accountIBAN)) {
-                account = a;
-                break;
-            }
-        }
-        if (account == null) {
+        Account account = accountRegistry.getAccount(accountIBAN);
+        if (account == null || account.getOwner() != user) {
             throw new IllegalArgumentException("Account.java not found: " + accountIBAN);
         }
-        Card card = CardFactory.createCard(cardType);
-        account.addCard(card);
+        Card card = CardFactory.issueCard(cardType, account, cardDirectory, ids);
         Transaction transaction = Transaction.createCardTransaction(
                 timestamp, "New card created", accountIBAN, card.getCardNumber(), user.getEmail()
         );
@@ -1,13 +1,15 @@
 package org.poo.main.commands;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.poo.main.Transaction;
 import org.poo.main.User;
+import org.poo.main.UserDirectory;
 import org.poo.main.accounts.Account;
-
-import java.util.List;
+import org.poo.main.accounts.AccountRegistry;
+import org.poo.main.accounts.AliasDirectory;
+import org.poo.main.cards.CardDirectory;
+import org.poo.main.output.JsonContext;
 
 /**
  * Command for deleting a user's account.
@@ -17,7 +19,10 @@ public class DeleteAccountCommand implements Command {
     private final String email;
     private final String accountIBAN;
     private final ArrayNode output; // JSON node for output
-    private final List<User> users;
+    private final UserDirectory users;
+    private final AccountRegistry accountRegistry;
+    private final CardDirectory cardDirectory;
+    private final AliasDirectory aliasDirectory;
 
     /**
      * Constructor for DeleteAccountCommand.
@@ -25,16 +30,25 @@ public class DeleteAccountCommand implements Command {
      * @param accountIBAN the IBAN of the account to delete.
      * @param timestamp   the timestamp of the command.
      * @param email       the user's email.
-     * @param users       the list of users.
+     * @param users       the directory of users.
      * @param output      the JSON output node.
+     * @param accountRegistry the registry the deleted account is removed from.
+     * @param cardDirectory   the directory the deleted account's cards are removed from.
+     * @param aliasDirectory  the directory the deleted account's aliases are removed from.
      */
     public DeleteAccountCommand(final String accountIBAN, final int timestamp, final String email,
-                                final List<User> users, final ArrayNode output) {
+                                final UserDirectory users, final ArrayNode output,
+                                final AccountRegistry accountRegistry,
+                                final CardDirectory cardDirectory,
+                                final AliasDirectory aliasDirectory) {
         this.accountIBAN = accountIBAN;
         this.timestamp = timestamp;
         this.email = email;
         this.users = users;
         this.output = output;
+        this.accountRegistry = accountRegistry;
+        this.cardDirectory = cardDirectory;
+        this.aliasDirectory = aliasDirectory;
     }
 
     /**
@@ -42,29 +56,18 @@ public class DeleteAccountCommand implements Command {
      */
     @Override
     public void execute() {
-        User user = null;
-        for (User u : users) {
-            if (u.getEmail().equals(email)) {
-                user = u;
-                break;
-            }
-        }
-        Account account = null;
-        for (User u : users) {
-            for (Account acc : u.getAccounts()) {
-                if (acc.getIBAN().equals(accountIBAN)) {
-                    account = acc;
-                    break;
-                }
+        User user = users.findByEmail(email);
+        Account account = accountRegistry.getAccount(accountIBAN);
+        if (account.getBalance().isZero()) {
+            if (user.getAccounts().remove(account)) {
+                accountRegistry.unregister(account);
+                cardDirectory.unregisterAll(account);
+                aliasDirectory.unregisterAll(account);
             }
-        }
-        if (account.getBalance() == 0) {
-            user.getAccounts().remove(account);
-            ObjectMapper mapper = new ObjectMapper();
-            ObjectNode commandOutput = mapper.createObjectNode();
+            ObjectNode commandOutput = JsonContext.objectNode();
             commandOutput.put("command", "deleteAccount");
 
-            ObjectNode outputDetails = mapper.createObjectNode();
+            ObjectNode outputDetails = JsonContext.objectNode();
             outputDetails.put("success", "Account deleted");
             outputDetails.put("timestamp", timestamp);
 
@@ -73,11 +76,10 @@ public class DeleteAccountCommand implements Command {
 
             output.add(commandOutput);
         } else {
-            ObjectMapper mapper = new ObjectMapper();
-            ObjectNode commandOutput = mapper.createObjectNode();
+            ObjectNode commandOutput = JsonContext.objectNode();
             commandOutput.put("command", "deleteAccount");
 
-            ObjectNode outputDetails = mapper.createObjectNode();
+            ObjectNode outputDetails = JsonContext.objectNode();
             outputDetails.put("error",
                     "Account couldn't be deleted - see org.poo.transactions for details");
             outputDetails.put("timestamp", timestamp);
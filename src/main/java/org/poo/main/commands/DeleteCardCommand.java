@@ -1,17 +1,14 @@
 package org.poo.main.commands;
 
 import org.poo.main.Transaction;
-import org.poo.main.User;
 import org.poo.main.accounts.Account;
-import org.poo.main.cards.Card;
-
-import java.util.List;
+import org.poo.main.cards.CardDirectory;
 
 /**
  * Command to delete a card from an account.
  */
 public class DeleteCardCommand implements Command {
-    private final List<User> users;
+    private final CardDirectory cardDirectory;
     private final String cardNumber;
     private final int timestamp;
 
@@ -20,14 +17,14 @@ public class DeleteCardCommand implements Command {
      *
      * @param cardNumber the card number to delete.
      * @param timestamp  the timestamp of the command.
-     * @param users      the list of users.
+     * @param cardDirectory the directory used to resolve the card.
      */
     public DeleteCardCommand(final String cardNumber,
                              final int timestamp,
-                             final List<User> users) {
+                             final CardDirectory cardDirectory) {
         this.cardNumber = cardNumber;
         this.timestamp = timestamp;
-        this.users = users;
+        this.cardDirectory = cardDirectory;
     }
 
     /**
@@ -35,32 +32,14 @@ public class DeleteCardCommand implements Command {
      */
     @Override
     public void execute() {
-        Card cardToDelete = null;
-        Account accountToModify = null;
-
-        for (User user : users) {
-            for (Account account : user.getAccounts()) {
-                for (Card card : account.getCards()) {
-                    if (cardNumber.equals(card.getCardNumber())) {
-                        cardToDelete = card;
-                        accountToModify = account;
-                        break;
-                    }
-                }
-                if (cardToDelete != null) {
-                    break;
-                }
-            }
-            if (cardToDelete != null) {
-                break;
-            }
-        }
-
-        if (cardToDelete == null) {
+        CardDirectory.Entry entry = cardDirectory.lookup(cardNumber);
+        if (entry == null) {
             return;
         }
 
+        Account accountToModify = entry.account();
         accountToModify.removeCard(cardNumber);
+        cardDirectory.unregister(cardNumber);
         Transaction transaction = Transaction.
                 deleteCardTransaction(accountToModify.getIBAN(), timestamp, cardNumber,
                         accountToModify.getOwner().email, "The card has been destroyed");
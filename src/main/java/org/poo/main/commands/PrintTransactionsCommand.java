@@ -2,8 +2,10 @@ package org.poo.main.commands;
 
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.poo.main.Money;
 import org.poo.main.Transaction;
 import org.poo.main.User;
+import org.poo.main.UserDirectory;
 
 import java.util.List;
 
@@ -14,7 +16,7 @@ public class PrintTransactionsCommand implements Command {
     private static final double ROUNDING_FACTOR = 100.0;
     private final String email;
     private final int timestamp;
-    private final List<User> users;
+    private final UserDirectory users;
     private final ArrayNode output;
 
     /**
@@ -22,12 +24,12 @@ public class PrintTransactionsCommand implements Command {
      *
      * @param email     the email of the user.
      * @param timestamp the current timestamp.
-     * @param users     the list of users.
+     * @param users     the directory of users.
      * @param output    the JSON output node.
      */
     public PrintTransactionsCommand(final String email,
                                     final int timestamp,
-                                    final List<User> users,
+                                    final UserDirectory users,
                                     final ArrayNode output) {
         this.email = email;
         this.timestamp = timestamp;
@@ -40,14 +42,7 @@ public class PrintTransactionsCommand implements Command {
      */
     @Override
     public void execute() {
-        User user = null;
-
-        for (User u : users) {
-            if (u.getEmail().equals(email)) {
-                user = u;
-                break;
-            }
-        }
+        User user = users.findByEmail(email);
 
         if (user == null) {
             ObjectNode errorNode = output.addObject();
@@ -76,124 +71,135 @@ public class PrintTransactionsCommand implements Command {
      */
     private void renderTransaction(final Transaction transaction,
                                    final ObjectNode transactionNode) {
-        switch (transaction.getTransactionType()) {
-            case "sendMoney":
-                transactionNode.put("amount",
-                        transaction.getAmount() + " " + transaction.getCurrency());
-                transactionNode.put("description", transaction.getDescription());
-                transactionNode.put("receiverIBAN", transaction.getReceiverIBAN());
-                transactionNode.put("senderIBAN", transaction.getSenderIBAN());
-                transactionNode.put("timestamp", transaction.getTimestamp());
-                transactionNode.put("transferType", transaction.getTransferType());
+        switch (transaction.getType()) {
+            case SEND_MONEY:
+                Transaction.SendMoney transfer = (Transaction.SendMoney) transaction;
+                transactionNode.put("amount", transfer.getAmount().toDouble() + " "
+                        + transfer.getAmount().getCurrency());
+                transactionNode.put("description", transfer.getDescription());
+                transactionNode.put("receiverIBAN", transfer.getReceiverIBAN());
+                transactionNode.put("senderIBAN", transfer.getSenderIBAN());
+                transactionNode.put("timestamp", transfer.getTimestamp());
+                transactionNode.put("transferType", transfer.getTransferType());
                 break;
-            case "createCard":
-                transactionNode.put("account", transaction.getSenderIBAN());
-                transactionNode.put("card", transaction.getCard());
-                transactionNode.put("cardHolder", transaction.getCardHolder());
-                transactionNode.put("description", transaction.getDescription());
-                transactionNode.put("timestamp", transaction.getTimestamp());
+            case CREATE_CARD:
+                Transaction.CardEvent createdCard = (Transaction.CardEvent) transaction;
+                transactionNode.put("account", createdCard.getAccount());
+                transactionNode.put("card", createdCard.getCard());
+                transactionNode.put("cardHolder", createdCard.getCardHolder());
+                transactionNode.put("description", createdCard.getDescription());
+                transactionNode.put("timestamp", createdCard.getTimestamp());
                 break;
-            case "payOnline":
-                double balance = transaction.getAmount();
+            case PAY_ONLINE:
+                Transaction.CardPayment payment = (Transaction.CardPayment) transaction;
+                double balance = payment.getAmount().toDouble();
                 transactionNode.put("amount", balance);
-                transactionNode.put("commerciant", transaction.getCommerciant());
-                transactionNode.put("description", transaction.getDescription());
-                transactionNode.put("timestamp", transaction.getTimestamp());
+                transactionNode.put("commerciant", payment.getCommerciant());
+                transactionNode.put("description", payment.getDescription());
+                transactionNode.put("timestamp", payment.getTimestamp());
                 break;
-            case "addAccount":
+            case ADD_ACCOUNT:
                 transactionNode.put("description", transaction.getDescription());
                 transactionNode.put("timestamp", transaction.getTimestamp());
                 break;
-            case "deleteCard":
-                transactionNode.put("account", transaction.getSenderIBAN());
-                transactionNode.put("card", transaction.getCard());
-                transactionNode.put("cardHolder", transaction.getCardHolder());
-                transactionNode.put("description", transaction.getDescription());
-                transactionNode.put("timestamp", transaction.getTimestamp());
+            case DELETE_CARD:
+                Transaction.CardEvent deletedCard = (Transaction.CardEvent) transaction;
+                transactionNode.put("account", deletedCard.getAccount());
+                transactionNode.put("card", deletedCard.getCard());
+                transactionNode.put("cardHolder", deletedCard.getCardHolder());
+                transactionNode.put("description", deletedCard.getDescription());
+                transactionNode.put("timestamp", deletedCard.getTimestamp());
                 break;
-            case "splitPayment":
-                balance = transaction.getAmount();
+            case SPLIT_PAYMENT:
+                Transaction.SplitPayment split = (Transaction.SplitPayment) transaction;
+                balance = split.getAmount().toDouble();
                 if (balance % 1 == 0) {
                     transactionNode.put("amount", balance);
                 } else {
                     transactionNode.put("amount",
                             Math.round(balance * ROUNDING_FACTOR) / ROUNDING_FACTOR);
                 }
-                transactionNode.put("currency", transaction.getCurrency());
-                transactionNode.put("description", transaction.getDescription());
-                if (transaction.getSenderIBAN() != null) {
-                    transactionNode.put("error", transaction.getSenderIBAN());
+                transactionNode.put("currency", split.getAmount().getCurrency());
+                transactionNode.put("description", split.getDescription());
+                if (split.getError() != null) {
+                    transactionNode.put("error", split.getError());
 
                 }
                 ArrayNode involvedAccountsArray =
                         transactionNode.putArray("involvedAccounts");
-                List<String> involvedAccounts = transaction.getAccounts();
+                List<String> involvedAccounts = split.getAccounts();
                 for (String account : involvedAccounts) {
                     involvedAccountsArray.add(account);
                 }
 
-                transactionNode.put("timestamp", transaction.getTimestamp());
-            case "splitPaymentCustom":
-                transactionNode.put("currency", transaction.getCurrency());
-                transactionNode.put("description", transaction.getDescription());
+                transactionNode.put("timestamp", split.getTimestamp());
+            case SPLIT_PAYMENT_CUSTOM:
+                Transaction.SplitPayment customSplit = (Transaction.SplitPayment) transaction;
+                transactionNode.put("currency", customSplit.getAmount().getCurrency());
+                transactionNode.put("description", customSplit.getDescription());
                 ArrayNode involvedAccounts1 =
                         transactionNode.putArray("involvedAccounts");
-                List<String> involvedAccounts2 = transaction.getAccounts();
+                List<String> involvedAccounts2 = customSplit.getAccounts();
                 for (String account : involvedAccounts2) {
                     involvedAccounts1.add(account);
                 }
                 transactionNode.put("splitPaymentType", "custom");
                 ArrayNode amountsToPay = transactionNode.putArray("amountForUsers");
-                List<Double> amounts = transaction.getAmounts();
-                for (Double amount : amounts) {
-                    amountsToPay.add(Math.round(amount * ROUNDING_FACTOR) / ROUNDING_FACTOR);
+                List<Money> amounts = customSplit.getAmounts();
+                for (Money amount : amounts) {
+                    amountsToPay.add(Math.round(amount.toDouble() * ROUNDING_FACTOR)
+                            / ROUNDING_FACTOR);
                 }
-                transactionNode.put("timestamp", transaction.getTimestamp());
-                if (transaction.getReceiverIBAN() != null) {
-                    transactionNode.put("error", transaction.getReceiverIBAN());
+                transactionNode.put("timestamp", customSplit.getTimestamp());
+                if (customSplit.getError() != null) {
+                    transactionNode.put("error", customSplit.getError());
                 }
                 break;
-            case "splitPaymentEqual":
-                balance = transaction.getAmount();
+            case SPLIT_PAYMENT_EQUAL:
+                Transaction.SplitPayment equalSplit = (Transaction.SplitPayment) transaction;
+                balance = equalSplit.getAmount().toDouble();
                 if (balance % 1 == 0) {
                     transactionNode.put("amount", balance);
                 } else {
                     transactionNode.put("amount",
                             Math.round(balance * ROUNDING_FACTOR) / ROUNDING_FACTOR);
                 }
-                transactionNode.put("currency", transaction.getCurrency());
-                transactionNode.put("description", transaction.getDescription());
-                if (transaction.getSenderIBAN() != null) {
-                    transactionNode.put("error", transaction.getSenderIBAN());
+                transactionNode.put("currency", equalSplit.getAmount().getCurrency());
+                transactionNode.put("description", equalSplit.getDescription());
+                if (equalSplit.getError() != null) {
+                    transactionNode.put("error", equalSplit.getError());
                 }
                 ArrayNode involvedAccountsArray2 =
                         transactionNode.putArray("involvedAccounts");
-                List<String> involvedAccounts3 = transaction.getAccounts();
+                List<String> involvedAccounts3 = equalSplit.getAccounts();
                 for (String account : involvedAccounts3) {
                     involvedAccountsArray2.add(account);
                 }
-                transactionNode.put("timestamp", transaction.getTimestamp());
+                transactionNode.put("timestamp", equalSplit.getTimestamp());
                 break;
-            case "deleteAccount":
+            case DELETE_ACCOUNT:
                 transactionNode.put("description", transaction.getDescription());
                 transactionNode.put("timestamp", transaction.getTimestamp());
                 break;
-            case "upgradePlan":
-                transactionNode.put("accountIBAN", transaction.getSenderIBAN());
-                transactionNode.put("description", transaction.getDescription());
-                transactionNode.put("newPlanType", transaction.getReceiverIBAN());
-                transactionNode.put("timestamp", transaction.getTimestamp());
+            case UPGRADE_PLAN:
+                Transaction.PlanUpgrade upgrade = (Transaction.PlanUpgrade) transaction;
+                transactionNode.put("accountIBAN", upgrade.getAccount());
+                transactionNode.put("description", upgrade.getDescription());
+                transactionNode.put("newPlanType", upgrade.getNewPlanType());
+                transactionNode.put("timestamp", upgrade.getTimestamp());
                 break;
-            case "cashWithdrawal":
-                transactionNode.put("timestamp", transaction.getTimestamp());
-                transactionNode.put("amount", transaction.getAmount());
-                transactionNode.put("description", transaction.getDescription());
+            case CASH_WITHDRAWAL:
+                Transaction.AmountEvent withdrawal = (Transaction.AmountEvent) transaction;
+                transactionNode.put("timestamp", withdrawal.getTimestamp());
+                transactionNode.put("amount", withdrawal.getAmount().toDouble());
+                transactionNode.put("description", withdrawal.getDescription());
                 break;
-            case "addInterest":
-                transactionNode.put("description", transaction.getDescription());
-                transactionNode.put("currency", transaction.getCurrency());
-                transactionNode.put("amount", transaction.getAmount());
-                transactionNode.put("timestamp", transaction.getTimestamp());
+            case ADD_INTEREST:
+                Transaction.AmountEvent interest = (Transaction.AmountEvent) transaction;
+                transactionNode.put("description", interest.getDescription());
+                transactionNode.put("currency", interest.getAmount().getCurrency());
+                transactionNode.put("amount", interest.getAmount().toDouble());
+                transactionNode.put("timestamp", interest.getTimestamp());
                 break;
             default:
                 transactionNode.put("description", transaction.getDescription());
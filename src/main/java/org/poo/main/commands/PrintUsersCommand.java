@@ -1,28 +1,29 @@
 package org.poo.main.commands;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.poo.main.User;
+import org.poo.main.UserDirectory;
 import org.poo.main.accounts.Account;
 import org.poo.main.cards.Card;
+import org.poo.main.output.JsonContext;
 
 import java.text.DecimalFormat;
-import java.util.List;
 
 public class PrintUsersCommand implements Command {
-    private final List<User> users;
+    private final UserDirectory users;
     private final int timestamp;
     private final ArrayNode output;
 
     /**
      * Constructs a PrintUsersCommand instance.
      *
-     * @param users     the list of users to print information for
+     * @param users     the directory of users to print information for
      * @param timestamp the timestamp of the command execution
      * @param output    the JSON array to append the command's result to
      */
-    public PrintUsersCommand(final List<User> users, final int timestamp, final ArrayNode output) {
+    public PrintUsersCommand(final UserDirectory users, final int timestamp,
+                             final ArrayNode output) {
         this.users = users;
         this.timestamp = timestamp;
         this.output = output;
@@ -30,33 +31,32 @@ public class PrintUsersCommand implements Command {
 
     @Override
     public void execute() {
-        ObjectMapper mapper = new ObjectMapper();
-        ArrayNode userArray = mapper.createArrayNode();
+        ArrayNode userArray = JsonContext.arrayNode();
 
         DecimalFormat df = new DecimalFormat("#.00");
 
 
-        for (User user : users) {
+        for (User user : users.getAll()) {
 
-            ObjectNode userNode = mapper.createObjectNode();
+            ObjectNode userNode = JsonContext.objectNode();
             userNode.put("firstName", user.getFirstName());
             userNode.put("lastName", user.getLastName());
             userNode.put("email", user.getEmail());
 
-            ArrayNode accountsArray = mapper.createArrayNode();
+            ArrayNode accountsArray = JsonContext.arrayNode();
             for (Account account : user.getAccounts()) {
-                ObjectNode accountNode = mapper.createObjectNode();
+                ObjectNode accountNode = JsonContext.objectNode();
                 accountNode.put("IBAN", account.getIBAN());
 
-                accountNode.put("balance", account.getBalance());
+                accountNode.put("balance", account.getBalance().toDouble());
                 accountNode.put("currency", account.getCurrency());
                 accountNode.put("type", account.getAccountType());
 
-                ArrayNode cardsArray = mapper.createArrayNode();
+                ArrayNode cardsArray = JsonContext.arrayNode();
                 for (Card card : account.getCards()) {
-                    ObjectNode cardNode = mapper.createObjectNode();
+                    ObjectNode cardNode = JsonContext.objectNode();
                     cardNode.put("cardNumber", card.getCardNumber());
-                    cardNode.put("status", card.getStatus());
+                    cardNode.put("status", card.getStatus().getName());
                     cardsArray.add(cardNode);
                 }
 
@@ -68,7 +68,7 @@ public class PrintUsersCommand implements Command {
             userArray.add(userNode);
         }
 
-        ObjectNode commandOutput = mapper.createObjectNode();
+        ObjectNode commandOutput = JsonContext.objectNode();
         commandOutput.put("command", "printUsers");
         commandOutput.set("output", userArray);
         commandOutput.put("timestamp", timestamp);
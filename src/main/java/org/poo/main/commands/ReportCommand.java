@@ -3,8 +3,8 @@ package org.poo.main.commands;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.poo.main.Transaction;
-import org.poo.main.User;
 import org.poo.main.accounts.Account;
+import org.poo.main.accounts.AccountRegistry;
 
 import java.util.List;
 
@@ -16,7 +16,7 @@ public class ReportCommand implements Command {
     private final int startTimestamp;
     private final int endTimestamp;
     private final String accountIBAN;
-    private final List<User> users;
+    private final AccountRegistry accountRegistry;
     private final ArrayNode output;
 
     /**
@@ -26,20 +26,20 @@ public class ReportCommand implements Command {
      * @param startTimestamp the start timestamp for the report.
      * @param endTimestamp   the end timestamp for the report.
      * @param accountIBAN    the IBAN of the account.
-     * @param users          the list of users.
+     * @param accountRegistry the registry used to resolve the account.
      * @param output         the JSON output node.
      */
     public ReportCommand(final int timestamp,
                          final int startTimestamp,
                          final int endTimestamp,
                          final String accountIBAN,
-                         final List<User> users,
+                         final AccountRegistry accountRegistry,
                          final ArrayNode output) {
         this.timestamp = timestamp;
         this.startTimestamp = startTimestamp;
         this.endTimestamp = endTimestamp;
         this.accountIBAN = accountIBAN;
-        this.users = users;
+        this.accountRegistry = accountRegistry;
         this.output = output;
     }
 
@@ -47,16 +47,7 @@ public class ReportCommand implements Command {
      * Executes the command to generate a report for the account.
      */
     public void execute() {
-        Account account = null;
-
-        for (User user : users) {
-            for (Account acc : user.getAccounts()) {
-                if (acc.getIBAN().equals(accountIBAN)) {
-                    account = acc;
-                    break;
-                }
-            }
-        }
+        Account account = accountRegistry.getAccount(accountIBAN);
 
         if (account == null) {
             throw new IllegalArgumentException("Account not found");
@@ -64,55 +55,56 @@ public class ReportCommand implements Command {
         ObjectNode reportNode = output.addObject();
         reportNode.put("command", "report");
         ObjectNode outputNode = reportNode.putObject("output");
-        outputNode.put("balance", account.getBalance());
+        outputNode.put("balance", account.getBalance().toDouble());
         outputNode.put("currency", account.getCurrency());
         outputNode.put("IBAN", account.getIBAN());
 
         ArrayNode transactionsArray = outputNode.putArray("transactions");
 
-        for (Transaction transaction : account.getTransactions()) {
-            if (transaction.getTimestamp() >= startTimestamp
-                    && transaction.getTimestamp() <= endTimestamp) {
-
-                ObjectNode transactionNode = transactionsArray.addObject();
-                transactionNode.put("description", transaction.getDescription());
-                transactionNode.put("timestamp", transaction.getTimestamp());
+        for (Transaction transaction : account.getTransactions(startTimestamp, endTimestamp)) {
+            ObjectNode transactionNode = transactionsArray.addObject();
+            transactionNode.put("description", transaction.getDescription());
+            transactionNode.put("timestamp", transaction.getTimestamp());
 
-                switch (transaction.getTransactionType()) {
-                    case "createCard":
-                        transactionNode.put("account", transaction.getSenderIBAN());
-                        transactionNode.put("card", transaction.getCard());
-                        transactionNode.put("cardHolder", transaction.getCardHolder());
-                        break;
-                    case "payOnline":
-                        transactionNode.put("amount", transaction.getAmount());
-                        transactionNode.put("commerciant", transaction.getCommerciant());
-                        break;
-                    case "sendMoney":
-                        transactionNode.put("amount",
-                                transaction.getAmount() + " " + transaction.getCurrency());
-                        transactionNode.put("transferType", transaction.getTransferType());
-                        transactionNode.put("senderIBAN", transaction.getSenderIBAN());
-                        transactionNode.put("receiverIBAN", transaction.getReceiverIBAN());
-                        break;
-                    case "splitPayment":
-                        transactionNode.put("amount", transaction.getAmount());
-                        transactionNode.put("currency", transaction.getCurrency());
-                        transactionNode.put("description", transaction.getDescription());
-                        if (transaction.getSenderIBAN() != null) {
-                            transactionNode.put("error", transaction.getSenderIBAN());
+            switch (transaction.getType()) {
+                case CREATE_CARD:
+                    Transaction.CardEvent createdCard = (Transaction.CardEvent) transaction;
+                    transactionNode.put("account", createdCard.getAccount());
+                    transactionNode.put("card", createdCard.getCard());
+                    transactionNode.put("cardHolder", createdCard.getCardHolder());
+                    break;
+                case PAY_ONLINE:
+                    Transaction.CardPayment payment = (Transaction.CardPayment) transaction;
+                    transactionNode.put("amount", payment.getAmount().toDouble());
+                    transactionNode.put("commerciant", payment.getCommerciant());
+                    break;
+                case SEND_MONEY:
+                    Transaction.SendMoney transfer = (Transaction.SendMoney) transaction;
+                    transactionNode.put("amount",
+                            transfer.getAmount().toDouble() + " "
+                                    + transfer.getAmount().getCurrency());
+                    transactionNode.put("transferType", transfer.getTransferType());
+                    transactionNode.put("senderIBAN", transfer.getSenderIBAN());
+                    transactionNode.put("receiverIBAN", transfer.getReceiverIBAN());
+                    break;
+                case SPLIT_PAYMENT:
+                    Transaction.SplitPayment split = (Transaction.SplitPayment) transaction;
+                    transactionNode.put("amount", split.getAmount().toDouble());
+                    transactionNode.put("currency", split.getAmount().getCurrency());
+                    transactionNode.put("description", split.getDescription());
+                    if (split.getError() != null) {
+                        transactionNode.put("error", split.getError());
 
-                        }
-                        ArrayNode involvedAccountsArray =
-                                transactionNode.putArray("involvedAccounts");
-                        List<String> involvedAccounts = transaction.getAccounts();
-                        for (String account1 : involvedAccounts) {
-                            involvedAccountsArray.add(account1);
-                        }
-                        transactionNode.put("timestamp", transaction.getTimestamp());
-                    default:
-                        break;
-                }
+                    }
+                    ArrayNode involvedAccountsArray =
+                            transactionNode.putArray("involvedAccounts");
+                    List<String> involvedAccounts = split.getAccounts();
+                    for (String account1 : involvedAccounts) {
+                        involvedAccountsArray.add(account1);
+                    }
+                    transactionNode.put("timestamp", split.getTimestamp());
+                default:
+                    break;
             }
         }
         reportNode.put("timestamp", timestamp);
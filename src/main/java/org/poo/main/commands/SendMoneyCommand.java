@@ -1,13 +1,12 @@
 package org.poo.main.commands;
 
 import org.poo.main.CurrencyConverter;
+import org.poo.main.Money;
 import org.poo.main.Transaction;
-import org.poo.main.User;
 import org.poo.main.accounts.Account;
-import org.poo.main.commissions.CommissionHandler;
-import org.poo.main.commissions.CommissionHandlerChain;
-
-import java.util.List;
+import org.poo.main.accounts.AccountRegistry;
+import org.poo.main.accounts.AliasDirectory;
+import org.poo.main.commissions.CommissionEngine;
 
 /**
  * Command to send money between accounts.
@@ -19,7 +18,8 @@ public class SendMoneyCommand implements Command {
     private final int timestamp;
     private final String description;
     private final CurrencyConverter currencyConverter;
-    private final List<User> users;
+    private final AccountRegistry accountRegistry;
+    private final AliasDirectory aliasDirectory;
 
     /**
      * Constructor for SendMoneyCommand.
@@ -30,7 +30,8 @@ public class SendMoneyCommand implements Command {
      * @param timestamp           the timestamp of the transaction.
      * @param description         the description of the transaction.
      * @param currencyConverter   the currency converter utility.
-     * @param users               the list of users.
+     * @param accountRegistry     the registry used to resolve accounts.
+     * @param aliasDirectory      the directory used to resolve aliases.
      */
     public SendMoneyCommand(final String accountIbanOrAlias,
                             final double amount,
@@ -38,14 +39,16 @@ public class SendMoneyCommand implements Command {
                             final int timestamp,
                             final String description,
                             final CurrencyConverter currencyConverter,
-                            final List<User> users) {
+                            final AccountRegistry accountRegistry,
+                            final AliasDirectory aliasDirectory) {
         this.accountIbanOrAlias = accountIbanOrAlias;
         this.amount = amount;
         this.receiverIbanOrAlias = receiverIbanOrAlias;
         this.timestamp = timestamp;
         this.description = description;
         this.currencyConverter = currencyConverter;
-        this.users = users;
+        this.accountRegistry = accountRegistry;
+        this.aliasDirectory = aliasDirectory;
     }
 
     /**
@@ -53,61 +56,33 @@ public class SendMoneyCommand implements Command {
      */
     @Override
     public void execute() {
-        Account senderAccount = null;
-        Account recieverAccount = null;
-
-        String resolvedReceiverIBAN = receiverIbanOrAlias;
-        for (User u : users) {
-            String tempIBAN = u.getIBANFromAlias(receiverIbanOrAlias);
-            if (tempIBAN != null) {
-                resolvedReceiverIBAN = tempIBAN;
-                break;
-            }
-        }
-
-        for (User u : users) {
-            String tempIBAN = u.getIBANFromAlias(accountIbanOrAlias);
-            if (tempIBAN != null) {
-                return;
-            }
-        }
-
-        for (User u : users) {
-            for (Account account : u.getAccounts()) {
-                if (account.getIBAN().equals(accountIbanOrAlias)) {
-                    senderAccount = account;
-                    break;
-                }
-            }
+        if (aliasDirectory.contains(accountIbanOrAlias)) {
+            return;
         }
 
-        for (User user : users) {
-            for (Account account : user.getAccounts()) {
-                if (account.getIBAN().equals(resolvedReceiverIBAN)) {
-                    recieverAccount = account;
-                    break;
-                }
-            }
-        }
+        Account senderAccount = accountRegistry.getAccount(accountIbanOrAlias);
+        Account recieverAccount = aliasDirectory.contains(receiverIbanOrAlias)
+                ? aliasDirectory.lookup(receiverIbanOrAlias)
+                : accountRegistry.getAccount(receiverIbanOrAlias);
         if (senderAccount == null || recieverAccount == null) {
             throw new IllegalArgumentException("User not found");
         }
 
-        double commission = calculateCommission(senderAccount, amount);
+        Money amountSent = Money.of(amount, senderAccount.getCurrency());
+        Money commission = calculateCommission(senderAccount, amountSent);
 
 
-        double finalAmount = amount;
-        if (!senderAccount.getCurrency().equals(recieverAccount.getCurrency())) {
-            finalAmount = currencyConverter.convert(
-                    amount, senderAccount.getCurrency(), recieverAccount.getCurrency());
-        }
-        double senderInitialAmount = senderAccount.getBalance();
-        double recieverInitialAmount = recieverAccount.getBalance();
-        if (senderInitialAmount - amount - commission >= 0) {
-            senderAccount.setBalance(senderInitialAmount - amount - commission);
-            recieverAccount.setBalance(recieverInitialAmount + finalAmount);
-
+        Money finalAmount = currencyConverter.convert(amountSent, recieverAccount.getCurrency());
+        Money debit = amountSent.plus(commission);
+        boolean sent;
+        if (senderAccount == recieverAccount) {
+            // Sending to the same account has always only credited the amount received,
+            // provided the balance covered the amount sent.
+            sent = senderAccount.tryCredit(finalAmount, debit);
         } else {
+            sent = Account.transfer(senderAccount, debit, recieverAccount, finalAmount);
+        }
+        if (!sent) {
             Transaction transaction =
                     Transaction.addAccountTransaction(
                             timestamp, "Insufficient funds",
@@ -120,14 +95,14 @@ public class SendMoneyCommand implements Command {
 
         Transaction senderTransaction = Transaction.createSendMoneyTransaction(
                 timestamp, description, senderAccount.getIBAN(), recieverAccount.getIBAN(),
-                amount, senderAccount.getCurrency(), "sent"
+                amountSent, "sent"
         );
         senderAccount.getOwner().addTransaction(senderTransaction);
         senderAccount.addTransaction(senderTransaction);
 
         Transaction receiverTransaction = Transaction.createSendMoneyTransaction(
                 timestamp, description, senderAccount.getIBAN(), recieverAccount.getIBAN(),
-                finalAmount, recieverAccount.getCurrency(), "received"
+                finalAmount, "received"
         );
         recieverAccount.getOwner().addTransaction(receiverTransaction);
         recieverAccount.addTransaction(receiverTransaction);
@@ -138,13 +113,12 @@ public class SendMoneyCommand implements Command {
      * Calculates the commission based on the account's plan type.
      *
      * @param senderAccount the sender's account.
-     * @param amount        the amount being sent.
+     * @param amount        the amount being sent, in the account's currency.
      * @return the calculated commission.
      */
-    private double calculateCommission(final Account senderAccount, final double amount) {
-        CommissionHandler chain = CommissionHandlerChain.createChain();
-        return chain.handleCommission(senderAccount.getPlanType(),
-                amount, senderAccount.getCurrency(), currencyConverter);
+    private Money calculateCommission(final Account senderAccount, final Money amount) {
+        return CommissionEngine.getInstance().commission(senderAccount.getPlanType(),
+                amount, currencyConverter);
     }
 
 }
@@ -1,8 +1,10 @@
 package org.poo.main.commands;
 
 import org.poo.main.User;
-
-import java.util.List;
+import org.poo.main.UserDirectory;
+import org.poo.main.accounts.Account;
+import org.poo.main.accounts.AccountRegistry;
+import org.poo.main.accounts.AliasDirectory;
 
 /**
  * Command to set an alias for a user's account.
@@ -11,7 +13,9 @@ public class SetAliasCommand implements Command {
     private final String email;
     private final String alias;
     private final String accountIBAN;
-    private final List<User> users;
+    private final UserDirectory users;
+    private final AccountRegistry accountRegistry;
+    private final AliasDirectory aliasDirectory;
 
     /**
      * Constructor for SetAliasCommand.
@@ -19,16 +23,22 @@ public class SetAliasCommand implements Command {
      * @param email       the email of the user.
      * @param alias       the alias to be set.
      * @param accountIBAN the IBAN of the account to associate with the alias.
-     * @param users       the list of users.
+     * @param users       the directory of users.
+     * @param accountRegistry the registry used to resolve the account.
+     * @param aliasDirectory  the directory the alias is recorded in.
      */
     public SetAliasCommand(final String email,
                            final String alias,
                            final String accountIBAN,
-                           final List<User> users) {
+                           final UserDirectory users,
+                           final AccountRegistry accountRegistry,
+                           final AliasDirectory aliasDirectory) {
         this.email = email;
         this.alias = alias;
         this.accountIBAN = accountIBAN;
         this.users = users;
+        this.accountRegistry = accountRegistry;
+        this.aliasDirectory = aliasDirectory;
     }
 
     /**
@@ -36,13 +46,11 @@ public class SetAliasCommand implements Command {
      */
     @Override
     public void execute() {
-        User user = null;
-        for (User user1 : users) {
-            if (user1.getEmail().equals(email)) {
-                user = user1;
-                break;
-            }
+        User user = users.findByEmail(email);
+        if (user == null) {
+            throw new IllegalArgumentException("User not found");
         }
-        user.addAlias(alias, accountIBAN);
+        Account account = accountRegistry.getAccount(accountIBAN);
+        aliasDirectory.register(alias, account);
     }
 }
@@ -1,9 +1,8 @@
 package org.poo.main.commands;
 
-import org.poo.main.User;
+import org.poo.main.Money;
 import org.poo.main.accounts.Account;
-
-import java.util.List;
+import org.poo.main.accounts.AccountRegistry;
 
 /**
  * Command to set a minimum balance for an account.
@@ -13,7 +12,7 @@ public final class SetMinBalanceCommand implements Command {
     private final double amount;
     private final String accountIBAN;
     private final int timestamp;
-    private final List<User> users;
+    private final AccountRegistry accountRegistry;
 
     /**
      * Constructs a SetMinBalanceCommand.
@@ -21,16 +20,16 @@ public final class SetMinBalanceCommand implements Command {
      * @param amount     the minimum balance to set
      * @param accountIBAN the IBAN of the account
      * @param timestamp  the timestamp of the command
-     * @param users      the list of users
+     * @param accountRegistry the registry used to resolve the account
      */
     public SetMinBalanceCommand(final double amount,
                                 final String accountIBAN,
                                 final int timestamp,
-                                final List<User> users) {
+                                final AccountRegistry accountRegistry) {
         this.amount = amount;
         this.accountIBAN = accountIBAN;
         this.timestamp = timestamp;
-        this.users = users;
+        this.accountRegistry = accountRegistry;
     }
 
     /**
@@ -41,21 +40,12 @@ public final class SetMinBalanceCommand implements Command {
      */
     @Override
     public void execute() {
-        Account accountToSet = null;
-
-        for (User user : users) {
-            for (Account account : user.getAccounts()) {
-                if (account.getIBAN().equals(accountIBAN)) {
-                    accountToSet = account;
-                    break;
-                }
-            }
-        }
+        Account accountToSet = accountRegistry.getAccount(accountIBAN);
 
         if (accountToSet == null) {
             throw new IllegalArgumentException("Account with IBAN " + accountIBAN + " not found.");
         }
 
-        accountToSet.setMinBalance(amount);
+        accountToSet.setMinBalance(Money.of(amount, accountToSet.getCurrency()));
     }
 }
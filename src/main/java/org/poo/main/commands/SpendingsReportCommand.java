@@ -2,14 +2,13 @@ package org.poo.main.commands;
 
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.poo.main.Money;
 import org.poo.main.Transaction;
-import org.poo.main.User;
+import org.poo.main.TransactionType;
 import org.poo.main.accounts.Account;
+import org.poo.main.accounts.AccountRegistry;
 
-import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
-import java.util.TreeMap;
 
 /**
  * Generates a spendings report for a specified account within a time range.
@@ -19,7 +18,7 @@ public class SpendingsReportCommand implements Command {
     private final int startTimestamp;
     private final int endTimestamp;
     private final String accountIBAN;
-    private final List<User> users;
+    private final AccountRegistry accountRegistry;
     private final ArrayNode output;
 
     /**
@@ -29,20 +28,20 @@ public class SpendingsReportCommand implements Command {
      * @param startTimestamp the start of the reporting period.
      * @param endTimestamp   the end of the reporting period.
      * @param accountIBAN    the IBAN of the account to generate the report for.
-     * @param users          the list of users.
+     * @param accountRegistry the registry used to resolve the account.
      * @param output         the JSON output node.
      */
     public SpendingsReportCommand(final int timestamp,
                                   final int startTimestamp,
                                   final int endTimestamp,
                                   final String accountIBAN,
-                                  final List<User> users,
+                                  final AccountRegistry accountRegistry,
                                   final ArrayNode output) {
         this.timestamp = timestamp;
         this.startTimestamp = startTimestamp;
         this.endTimestamp = endTimestamp;
         this.accountIBAN = accountIBAN;
-        this.users = users;
+        this.accountRegistry = accountRegistry;
         this.output = output;
     }
 
@@ -51,16 +50,7 @@ public class SpendingsReportCommand implements Command {
      */
     @Override
     public void execute() {
-        Account account = null;
-
-        for (User user : users) {
-            for (Account acc : user.getAccounts()) {
-                if (acc.getIBAN().equals(accountIBAN)) {
-                    account = acc;
-                    break;
-                }
-            }
-        }
+        Account account = accountRegistry.getAccount(accountIBAN);
 
         if (account == null) {
             throw new IllegalArgumentException("Account not found");
@@ -75,47 +65,32 @@ public class SpendingsReportCommand implements Command {
             resultNode.put("timestamp", timestamp);
             return;
         }
-        reportNode.put("balance", account.getBalance());
+        reportNode.put("balance", account.getBalance().toDouble());
         reportNode.put("currency", account.getCurrency());
         reportNode.put("IBAN", account.getIBAN());
 
         ArrayNode transactionsArray = reportNode.putArray("transactions");
 
-        for (Transaction transaction : account.getTransactions()) {
-            if (transaction.getTimestamp() >= startTimestamp
-                    && transaction.getTimestamp() <= endTimestamp) {
-                if (transaction.getTransactionType() != "addAccount"
-                        &&
-                        transaction.getTransactionType() != "sendMoney"
-                        &&
-                        transaction.getTransactionType() != "createCard"
-                        &&
-                        transaction.getTransactionType() != "splitPayment") {
-                    transactionsArray.add(transaction.toJson());
-                }
-            }
-        }
-
-        Map<String, Double> commerciantTotals = new HashMap<>();
-        for (Transaction transaction : account.getTransactions()) {
-            if (transaction.getTimestamp() >= startTimestamp
-                    && transaction.getTimestamp() <= endTimestamp) {
-                String commerciant = transaction.getCommerciant();
-                if (commerciant != null) {
-                    double amount = transaction.getAmount();
-                    commerciantTotals.put(commerciant,
-                            commerciantTotals.getOrDefault(commerciant, 0.0) + amount);
-                }
+        for (Transaction transaction : account.getTransactions(startTimestamp, endTimestamp)) {
+            if (transaction.getType() != TransactionType.ADD_ACCOUNT
+                    &&
+                    transaction.getType() != TransactionType.SEND_MONEY
+                    &&
+                    transaction.getType() != TransactionType.CREATE_CARD
+                    &&
+                    transaction.getType() != TransactionType.SPLIT_PAYMENT) {
+                transactionsArray.add(transaction.toJson());
             }
         }
 
         ArrayNode commerciantsArray = reportNode.putArray("commerciants");
-        Map<String, Double> sortedCommerciantTotals = new TreeMap<>(commerciantTotals);
+        Map<String, Money> commerciantTotals =
+                account.getMerchantTotals(startTimestamp, endTimestamp);
 
-        for (Map.Entry<String, Double> entry : sortedCommerciantTotals.entrySet()) {
+        for (Map.Entry<String, Money> entry : commerciantTotals.entrySet()) {
             ObjectNode commerciantNode = commerciantsArray.addObject();
             commerciantNode.put("commerciant", entry.getKey());
-            double value = entry.getValue();
+            double value = entry.getValue().toDouble();
             commerciantNode.put("total", value);
         }
 
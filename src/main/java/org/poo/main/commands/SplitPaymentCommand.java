@@ -1,9 +1,10 @@
 package org.poo.main.commands;
 
 import org.poo.main.CurrencyConverter;
+import org.poo.main.Money;
 import org.poo.main.Transaction;
-import org.poo.main.User;
 import org.poo.main.accounts.Account;
+import org.poo.main.accounts.AccountRegistry;
 import org.poo.main.splitpayments2.SplitPaymentStatus;
 
 import java.util.ArrayList;
@@ -15,12 +16,12 @@ import java.util.List;
 public class SplitPaymentCommand implements Command {
     private final int timestamp;
     private final String currency;
-    private final double amount;
+    private final Money amount;
     private final List<String> accountIbans;
-    private final List<User> users;
+    private final AccountRegistry accountRegistry;
     private final CurrencyConverter currencyConverter;
     private final String splitPaymentType;
-    private final List<Double> amountForUsers;
+    private final List<Money> amountForUsers;
     private final SplitPaymentStatus status;
 
 
@@ -28,28 +29,26 @@ public class SplitPaymentCommand implements Command {
      * Constructor for SplitPaymentCommand.
      *
      * @param timestamp         the timestamp of the command.
-     * @param currency          the currency of the payment.
-     * @param amount            the amount to be split.
+     * @param amount            the amount to be split, in the currency of the payment.
      * @param accountIbans      the list of account IBANs involved.
-     * @param users             the list of users in the system.
+     * @param accountRegistry   the registry used to resolve the accounts.
      * @param currencyConverter the currency converter utility.
      */
     public SplitPaymentCommand(final int timestamp,
-                               final double amount,
-                               final String currency,
+                               final Money amount,
                                final String splitPaymentType, // Adăugat
                                final List<String> accountIbans,
-                               final List<Double> amountForUsers,
-                               final List<User> users,
+                               final List<Money> amountForUsers,
+                               final AccountRegistry accountRegistry,
                                final CurrencyConverter currencyConverter,
                                final SplitPaymentStatus status) {
         this.timestamp = timestamp;
         this.amount = amount;
-        this.currency = currency;
+        this.currency = amount.getCurrency();
         this.splitPaymentType = splitPaymentType;
         this.accountIbans = accountIbans;
         this.amountForUsers = amountForUsers;
-        this.users = users;
+        this.accountRegistry = accountRegistry;
         this.currencyConverter = currencyConverter;
         this.status = status;
     }
@@ -59,12 +58,9 @@ public class SplitPaymentCommand implements Command {
      */
     public void execute() {
         for (String iban : accountIbans) {
-            for (User user : users) {
-                for (Account account : user.getAccounts()) {
-                    if (account.getIBAN().equals(iban)) {
-                        user.addTransaction(status);
-                    }
-                }
+            Account account = accountRegistry.getAccount(iban);
+            if (account != null) {
+                account.getOwner().addTransaction(status);
             }
         }
         if (status.anyRejected()) {
@@ -78,27 +74,16 @@ public class SplitPaymentCommand implements Command {
         }
         List<Account> accounts = new ArrayList<>();
         for (String iban : accountIbans) {
-            boolean accountFound = false;
-            for (User user : users) {
-                for (Account account : user.getAccounts()) {
-                    if (account.getIBAN().equals(iban)) {
-                        accounts.add(account);
-                        accountFound = true;
-                        break;
-                    }
-                }
-                if (accountFound) {
-                    break;
-                }
-            }
-            if (!accountFound) {
+            Account account = accountRegistry.getAccount(iban);
+            if (account == null) {
                 throw new IllegalArgumentException("Account not found for IBAN: " + iban);
             }
+            accounts.add(account);
         }
-        List<Double> amountsToPay = new ArrayList<>();
+        List<Money> amountsToPay = new ArrayList<>();
         if (splitPaymentType.equals("equal")) {
             System.out.println(timestamp);
-            double equalAmount = amount / accounts.size();
+            Money equalAmount = amount.dividedBy(accounts.size());
             for (int i = 0; i < accounts.size(); i++) {
                 amountsToPay.add(equalAmount);
             }
@@ -113,96 +98,70 @@ public class SplitPaymentCommand implements Command {
                     + splitPaymentType);
         }
 
+        List<Money> convertedAmounts = new ArrayList<>(accounts.size());
         for (int i = 0; i < accounts.size(); i++) {
-            Account account = accounts.get(i);
-            double convertedAmount = currencyConverter.convert(amountsToPay.get(i),
-                    currency, account.getCurrency());
-            if (account.getBalance() < convertedAmount) {
-                if (splitPaymentType.equals("custom")) {
-                    status.markAsFailed("Insufficient funds for account: "
-                            + account.getIBAN());
-                    String formattedAmount = String.format("%.2f", amount);
-                    Transaction errorTransaction = Transaction.
-                            splitPaymentCustomErrorTransaction(
-                            timestamp,
-                            "Split payment of " + formattedAmount + " " + currency,
-                            "Account " + account.getIBAN()
-                                    + " has insufficient funds for a split payment.",
-                            amount,
-                            currency,
-                            accountIbans,
-                            amountsToPay
-                    );
-                    for (Account involvedAccount : accounts) {
-                        System.out.println(involvedAccount.getIBAN()
-                                + " " + timestamp);
-                        List<Transaction> allTransactions =
-                                involvedAccount.getOwner().getTransactions();
-                        int insertIndex = 0;
-                        while (insertIndex < allTransactions.size()
-                                &&
-                                allTransactions.get(insertIndex).getTimestamp()
-                                        < errorTransaction.getTimestamp()) {
-                            insertIndex++;
-                        }
-                        allTransactions.add(insertIndex, errorTransaction);
-                        involvedAccount.addTransaction(errorTransaction);
-                        involvedAccount.getOwner().pollTransaction();
-                    }
-                } else {
-                    status.markAsFailed("Insufficient funds for account: "
-                            + account.getIBAN());
-                    String formattedAmount = String.format("%.2f", amount);
-                    Transaction errorTransaction = Transaction.
-                            splitPaymentEqualErrorTransaction(
-                            timestamp, "Split payment of " + formattedAmount + " " + currency,
-                            "Account " + account.getIBAN()
-                                    + " has insufficient funds for a split payment.", amount,
-                                    currency, accountIbans
-                    );
-                    for (Account involvedAccount : accounts) {
-                        System.out.println(involvedAccount.getIBAN() + " " + timestamp);
-                        List<Transaction> allTransactions =
-                                involvedAccount.getOwner().getTransactions();
-                        int insertIndex = 0;
-                        while (insertIndex < allTransactions.size()
-                                && allTransactions.get(insertIndex).getTimestamp()
-                                        < errorTransaction.getTimestamp()) {
-                            insertIndex++;
-                        }
-                        allTransactions.add(insertIndex, errorTransaction);
-                        involvedAccount.addTransaction(errorTransaction);
-                    }
+            convertedAmounts.add(currencyConverter.convert(amountsToPay.get(i),
+                    accounts.get(i).getCurrency()));
+        }
+        int shortIndex = Account.debitAll(accounts, convertedAmounts);
+        if (shortIndex >= 0) {
+            Account account = accounts.get(shortIndex);
+            if (splitPaymentType.equals("custom")) {
+                status.markAsFailed("Insufficient funds for account: "
+                        + account.getIBAN());
+                String formattedAmount = String.format("%.2f", amount.toDouble());
+                Transaction errorTransaction = Transaction.
+                        splitPaymentCustomErrorTransaction(
+                        timestamp,
+                        "Split payment of " + formattedAmount + " " + currency,
+                        "Account " + account.getIBAN()
+                                + " has insufficient funds for a split payment.",
+                        amount,
+                        accountIbans,
+                        amountsToPay
+                );
+                for (Account involvedAccount : accounts) {
+                    System.out.println(involvedAccount.getIBAN()
+                            + " " + timestamp);
+                    involvedAccount.getOwner().insertTransaction(errorTransaction);
+                    involvedAccount.addTransaction(errorTransaction);
+                    involvedAccount.getOwner().pollTransaction();
+                }
+            } else {
+                status.markAsFailed("Insufficient funds for account: "
+                        + account.getIBAN());
+                String formattedAmount = String.format("%.2f", amount.toDouble());
+                Transaction errorTransaction = Transaction.
+                        splitPaymentEqualErrorTransaction(
+                        timestamp, "Split payment of " + formattedAmount + " " + currency,
+                        "Account " + account.getIBAN()
+                                + " has insufficient funds for a split payment.", amount,
+                                accountIbans
+                );
+                for (Account involvedAccount : accounts) {
+                    System.out.println(involvedAccount.getIBAN() + " " + timestamp);
+                    involvedAccount.getOwner().insertTransaction(errorTransaction);
+                    involvedAccount.addTransaction(errorTransaction);
                 }
-                return;
             }
+            return;
         }
         for (int i = 0; i < accounts.size(); i++) {
             Account account = accounts.get(i);
-            double convertedAmount = currencyConverter.convert(amountsToPay.get(i),
-                    currency, account.getCurrency());
-            account.setBalance(account.getBalance() - convertedAmount);
-            List<Transaction> allTransactions = account.getOwner().getTransactions();
             Transaction transaction;
             if (splitPaymentType.equals("custom")) {
-                String formattedAmount = String.format("%.2f", amount);
+                String formattedAmount = String.format("%.2f", amount.toDouble());
                 transaction = Transaction.splitPaymentCustomTransaction(
                         timestamp, "Split payment of " + formattedAmount
-                                + " " + currency, amount, currency, accountIbans, amountsToPay
+                                + " " + currency, amount, accountIbans, amountsToPay
                 );
             } else {
                 transaction = Transaction.splitPaymentTransaction(timestamp,
                         "Split payment completed",
-                        amountsToPay.get(i), currency, accountIbans
+                        amountsToPay.get(i), accountIbans
                 );
             }
-            int insertIndex = 0;
-            while (insertIndex < allTransactions.size()
-                    && allTransactions.get(insertIndex).getTimestamp()
-                            < transaction.getTimestamp()) {
-                insertIndex++;
-            }
-            allTransactions.add(insertIndex, transaction);
+            account.getOwner().insertTransaction(transaction);
             account.addTransaction(transaction);
         }
     }
@@ -0,0 +1,50 @@
+package org.poo.main.commands;
+
+import org.poo.main.CurrencyConverter;
+
+/**
+ * Command to change an exchange rate while commands are being processed.
+ * The new rate is in effect from the command's timestamp; the rates derived
+ * through other currencies are recomputed as needed.
+ */
+public final class UpdateExchangeRateCommand implements Command {
+    private final String from;
+    private final String to;
+    private final double rate;
+    private final int timestamp;
+    private final CurrencyConverter currencyConverter;
+
+    /**
+     * Constructs an UpdateExchangeRateCommand.
+     *
+     * @param from              the source currency.
+     * @param to                the target currency.
+     * @param rate              the new conversion rate from source to target currency.
+     * @param timestamp         the timestamp of the command.
+     * @param currencyConverter the currency converter to update.
+     */
+    public UpdateExchangeRateCommand(final String from,
+                                     final String to,
+                                     final double rate,
+                                     final int timestamp,
+                                     final CurrencyConverter currencyConverter) {
+        this.from = from;
+        this.to = to;
+        this.rate = rate;
+        this.timestamp = timestamp;
+        this.currencyConverter = currencyConverter;
+    }
+
+    /**
+     * Executes the command to update the exchange rate.
+     *
+     * @throws IllegalArgumentException if a currency is missing or the rate is invalid.
+     */
+    @Override
+    public void execute() {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Exchange rate currencies are required");
+        }
+        currencyConverter.updateExchangeRate(from, to, rate, timestamp);
+    }
+}
@@ -1,16 +1,15 @@
 package org.poo.main.commandsPhase2;
 
 import org.poo.main.CurrencyConverter;
+import org.poo.main.Money;
 import org.poo.main.Transaction;
 import org.poo.main.User;
+import org.poo.main.UserDirectory;
 import org.poo.main.accounts.Account;
 import org.poo.main.cards.Card;
+import org.poo.main.cards.CardDirectory;
 import org.poo.main.commands.Command;
-import org.poo.main.commissions.CommissionHandler;
-import org.poo.main.commissions.CommissionHandlerChain;
-
-import java.util.List;
-
+import org.poo.main.commissions.CommissionEngine;
 
 public class CashWithdrawalCommand implements Command {
     private final String cardNumber;
@@ -18,8 +17,9 @@ public class CashWithdrawalCommand implements Command {
     private final String email;
     private final String location;
     private final int timestamp;
-    private final List<User> users;
+    private final UserDirectory users;
     private final CurrencyConverter currencyConverter;
+    private final CardDirectory cardDirectory;
 
 
     /**
@@ -30,15 +30,18 @@ public class CashWithdrawalCommand implements Command {
      * @param email      the user's email.
      * @param location   the ATM location.
      * @param timestamp  the transaction time.
-     * @param users      the list of users.
+     * @param users      the directory of users.
+     * @param currencyConverter the currency converter utility.
+     * @param cardDirectory     the directory used to resolve the card.
      */
     public CashWithdrawalCommand(final String cardNumber,
                                  final double amount,
                                  final String email,
                                  final String location,
                                  final int timestamp,
-                                 final List<User> users,
-                                 final CurrencyConverter currencyConverter) {
+                                 final UserDirectory users,
+                                 final CurrencyConverter currencyConverter,
+                                 final CardDirectory cardDirectory) {
         this.cardNumber = cardNumber;
         this.amount = amount;
         this.email = email;
@@ -46,6 +49,7 @@ public class CashWithdrawalCommand implements Command {
         this.timestamp = timestamp;
         this.users = users;
         this.currencyConverter = currencyConverter;
+        this.cardDirectory = cardDirectory;
     }
 
 
@@ -56,34 +60,20 @@ public class CashWithdrawalCommand implements Command {
      */
 
     public void execute() {
-        User user = null;
-        Account account = null;
-        Card card = null;
-
-        for (User u : users) {
-            if (u.getEmail().equals(email)) {
-                user = u;
-                for (Account acc : u.getAccounts()) {
-                    for (Card c : acc.getCards()) {
-                        if (c.getCardNumber().equals(cardNumber)) {
-                            card = c;
-                            account = acc;
-                            break;
-                        }
-                    }
-                }
-            }
-        }
+        User user = users.findByEmail(email);
         if (user == null) {
             throw new IllegalArgumentException("User not found");
         }
-        if (card == null) {
+        CardDirectory.Entry entry = cardDirectory.lookup(cardNumber);
+        if (entry == null || entry.owner() != user) {
             throw new IllegalArgumentException("Card not found");
         }
-        if (card.getStatus().equals("frozen")) {
+        Account account = entry.account();
+        Card card = entry.card();
+        if (card.isFrozen()) {
             throw new IllegalArgumentException("The card is frozen");
         }
-        if (amount > account.getBalance()) {
+        if (amount > account.getBalance().toDouble()) {
             Transaction transaction =
                     Transaction.addAccountTransaction(timestamp,
                             "Insufficient funds", null,
@@ -91,17 +81,16 @@ public class CashWithdrawalCommand implements Command {
             account.addTransaction(transaction);
             account.getOwner().addTransaction(transaction);
         }
-        if (account.getBalance() - amount >= 0) {
-            double amountInRightCurrency =
-                    currencyConverter.convert(amount, "RON", account.getCurrency());
-
-            account.setBalance(account.getBalance() - amountInRightCurrency);
-            double commission = calculateCommission(account, amountInRightCurrency);
-            account.setBalance(account.getBalance() - commission);
+        Money withdrawal = Money.of(amount, "RON");
+        Money amountInRightCurrency =
+                currencyConverter.convert(withdrawal, account.getCurrency());
+        Money commission = calculateCommission(account, amountInRightCurrency);
+        if (account.tryWithdraw(amountInRightCurrency, commission,
+                Money.of(amount, account.getCurrency()))) {
 
             Transaction transaction =
                     Transaction.cashWithdrawalTransaction("Cash withdrawal of " + amount,
-                            amount, timestamp);
+                            withdrawal, timestamp);
             account.addTransaction(transaction);
             account.getOwner().addTransaction(transaction);
 
@@ -114,13 +103,12 @@ public class CashWithdrawalCommand implements Command {
      * Calculates the commission based on the account's plan type.
      *
      * @param senderAccount the sender's account.
-     * @param amount        the amount being sent.
+     * @param amount        the amount withdrawn, in the account's currency.
      * @return the calculated commission.
      */
-    private double calculateCommission(final Account senderAccount, final double amount) {
-        CommissionHandler chain = CommissionHandlerChain.createChain();
-        return chain.handleCommission(senderAccount.getPlanType(), amount,
-                senderAccount.getCurrency(), currencyConverter);
+    private Money calculateCommission(final Account senderAccount, final Money amount) {
+        return CommissionEngine.getInstance().commission(senderAccount.getPlanType(), amount,
+                currencyConverter);
     }
 
 }
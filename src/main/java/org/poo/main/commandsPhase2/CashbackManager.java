@@ -7,13 +7,15 @@ import java.util.Map;
  * Manages the cashback strategies available for different cashback types.
  * It acts as a factory for retrieving the appropriate cashback strategy
  * based on the provided type.
+ * Strategies are stateless, so every manager hands out the same shared instances.
  */
 public class CashbackManager {
-    private final Map<String, CashbackStrategy> strategyMap = new HashMap<>();
+    private static final CashbackStrategy NO_CASHBACK = new NoCashbackStrategy();
+    private static final Map<String, CashbackStrategy> STRATEGY_MAP = new HashMap<>();
 
-    public CashbackManager() {
-        strategyMap.put("nrOfTransactions", new NrOfTransactionsCashbackStrategy());
-        strategyMap.put("spendingThreshold", new SpendingThresholdCashbackStrategy());
+    static {
+        STRATEGY_MAP.put("nrOfTransactions", new NrOfTransactionsCashbackStrategy());
+        STRATEGY_MAP.put("spendingThreshold", new SpendingThresholdCashbackStrategy());
     }
 
     /**
@@ -26,7 +28,7 @@ public class CashbackManager {
      * or a default no-op strategy.
      */
     public CashbackStrategy getStrategy(final String cashbackType) {
-        return strategyMap.getOrDefault(cashbackType, new NoCashbackStrategy());
+        return STRATEGY_MAP.getOrDefault(cashbackType, NO_CASHBACK);
     }
 }
 
@@ -1,5 +1,6 @@
 package org.poo.main.commandsPhase2;
 
+import org.poo.main.Money;
 import org.poo.main.accounts.Account;
 
 /**
@@ -10,12 +11,12 @@ public interface CashbackStrategy {
     /**
      * Calculates the cashback for a given transaction.
      *
-     * @param amount the amount of the transaction for which cashback is calculated.
+     * @param amount the amount of the transaction for which cashback is calculated, in RON.
      * @param account the account associated with the transaction.
      * @param merchantCategory the category of the merchant where the transaction occurred.
-     * @return the calculated cashback amount.
+     * @return the cashback rate, applied to the amount paid.
      */
-    double calculateCashback(double amount,
+    double calculateCashback(Money amount,
                              Account account,
                              String merchantCategory);
 }
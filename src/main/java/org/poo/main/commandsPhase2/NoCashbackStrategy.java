@@ -1,5 +1,6 @@
 package org.poo.main.commandsPhase2;
 
+import org.poo.main.Money;
 import org.poo.main.accounts.Account;
 
 /**
@@ -18,7 +19,7 @@ public class NoCashbackStrategy implements CashbackStrategy {
      * @return always 0.0 as no cashback is applied.
      */
     @Override
-    public double calculateCashback(final double amount,
+    public double calculateCashback(final Money amount,
                                     final Account account,
                                     final String merchantCategory) {
         return 0.0;
@@ -1,9 +1,9 @@
 package org.poo.main.commandsPhase2;
 
+import org.poo.main.MerchantCategory;
+import org.poo.main.Money;
 import org.poo.main.accounts.Account;
-
-import java.util.HashMap;
-import java.util.Map;
+import org.poo.main.accounts.CashbackLedger;
 
 /**
  * Implements a cashback strategy based on the number of transactions
@@ -14,6 +14,8 @@ import java.util.Map;
  *     <li>Clothes: 5% cashback after 5 transactions.</li>
  *     <li>Tech: 10% cashback after 10 transactions.</li>
  * </ul>
+ * The counters are kept per account in its cashback ledger, so the strategy is
+ * stateless and can be shared between merchants.
  */
 public final class NrOfTransactionsCashbackStrategy implements CashbackStrategy {
 
@@ -26,7 +28,19 @@ public final class NrOfTransactionsCashbackStrategy implements CashbackStrategy
     private static final double TECH_CASHBACK_RATE = 0.1;
     private static final int TECH_TRANSACTION_THRESHOLD = 10;
 
-    private final Map<String, Integer> transactionCount = new HashMap<>();
+    private static final double[] CASHBACK_RATES = new double[MerchantCategory.values().length];
+    private static final int[] TRANSACTION_THRESHOLDS =
+            new int[MerchantCategory.values().length];
+
+    static {
+        CASHBACK_RATES[MerchantCategory.FOOD.ordinal()] = FOOD_CASHBACK_RATE;
+        CASHBACK_RATES[MerchantCategory.CLOTHES.ordinal()] = CLOTHES_CASHBACK_RATE;
+        CASHBACK_RATES[MerchantCategory.TECH.ordinal()] = TECH_CASHBACK_RATE;
+        TRANSACTION_THRESHOLDS[MerchantCategory.FOOD.ordinal()] = FOOD_TRANSACTION_THRESHOLD;
+        TRANSACTION_THRESHOLDS[MerchantCategory.CLOTHES.ordinal()] =
+                CLOTHES_TRANSACTION_THRESHOLD;
+        TRANSACTION_THRESHOLDS[MerchantCategory.TECH.ordinal()] = TECH_TRANSACTION_THRESHOLD;
+    }
 
     /**
      * Calculates the cashback based on the number of transactions
@@ -35,29 +49,26 @@ public final class NrOfTransactionsCashbackStrategy implements CashbackStrategy
      * @param amount the transaction amount.
      * @param account the account associated with the transaction.
      * @param merchantCategory the category of the merchant.
-     * @return the cashback amount if conditions are met, otherwise 0.0.
+     * @return the cashback rate of the category if conditions are met, otherwise 0.0.
      */
     @Override
-    public double calculateCashback(final double amount,
+    public double calculateCashback(final Money amount,
                                     final Account account,
                                     final String merchantCategory) {
-        // Increment transaction count for the merchant category
-        transactionCount.put(merchantCategory,
-                transactionCount.getOrDefault(merchantCategory, 0) + 1);
+        MerchantCategory category = MerchantCategory.find(merchantCategory);
+        if (category == null) {
+            // Other categories never earn this cashback, so they are not counted
+            return 0.0;
+        }
 
-        int count = transactionCount.get(merchantCategory);
+        CashbackLedger ledger = account.getCashbackLedger();
+        int count = ledger.recordTransaction(category);
         double cashback = 0.0;
 
         // Check conditions for cashback and reset counter if conditions are met
-        if ("Food".equals(merchantCategory) && count == FOOD_TRANSACTION_THRESHOLD) {
-            cashback = amount * FOOD_CASHBACK_RATE;
-            transactionCount.put(merchantCategory, 0);
-        } else if ("Clothes".equals(merchantCategory) && count == CLOTHES_TRANSACTION_THRESHOLD) {
-            cashback = amount * CLOTHES_CASHBACK_RATE;
-            transactionCount.put(merchantCategory, 0);
-        } else if ("Tech".equals(merchantCategory) && count == TECH_TRANSACTION_THRESHOLD) {
-            cashback = amount * TECH_CASHBACK_RATE;
-            transactionCount.put(merchantCategory, 0);
+        if (count == TRANSACTION_THRESHOLDS[category.ordinal()]) {
+            cashback = CASHBACK_RATES[category.ordinal()];
+            ledger.resetTransactionCount(category);
         }
 
         return cashback;
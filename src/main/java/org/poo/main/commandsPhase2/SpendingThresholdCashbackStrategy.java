@@ -1,12 +1,14 @@
 package org.poo.main.commandsPhase2;
 
+import org.poo.main.Money;
+import org.poo.main.PlanType;
 import org.poo.main.accounts.Account;
 
-import java.util.Map;
-
 /**
  * A cashback strategy based on the user's spending thresholds.
  * Different cashback rates are applied based on the account type and total spending.
+ * The total spending is kept in the account's cashback ledger, so the strategy is
+ * stateless and can be shared between merchants.
  */
 public final class SpendingThresholdCashbackStrategy implements CashbackStrategy {
 
@@ -14,50 +16,69 @@ public final class SpendingThresholdCashbackStrategy implements CashbackStrategy
     private static final double GOLD_CASHBACK_MID = 0.0055;
     private static final double STANDARD_CASHBACK_HIGH = 0.0025;
     private static final double STANDARD_CASHBACK_MID = 0.002;
-    private static final int HIGH_THRESHOLD = 500;
-    private static final int MID_THRESHOLD = 300;
-    private static final int LOW_THRESHOLD = 100;
+    private static final double GOLD_CASHBACK_LOW = 0.005;
+    private static final double SILVER_CASHBACK_LOW = 0.003;
+    private static final double STANDARD_CASHBACK_LOW = 0.001;
+    private static final Money HIGH_THRESHOLD = Money.of(500, "RON");
+    private static final Money MID_THRESHOLD = Money.of(300, "RON");
+    private static final Money LOW_THRESHOLD = Money.of(100, "RON");
 
-    private final Map<String, Double> spendingThresholds = Map.of(
-            "standard", 0.001,
-            "student", 0.001,
-            "silver", 0.003,
-            "gold", 0.005
-    );
+    private static final double[] HIGH_RATES = ratesByPlan(STANDARD_CASHBACK_HIGH,
+            STANDARD_CASHBACK_HIGH, STANDARD_CASHBACK_HIGH, GOLD_CASHBACK_HIGH);
+    private static final double[] MID_RATES = ratesByPlan(STANDARD_CASHBACK_MID,
+            STANDARD_CASHBACK_MID, STANDARD_CASHBACK_MID, GOLD_CASHBACK_MID);
+    private static final double[] LOW_RATES = ratesByPlan(STANDARD_CASHBACK_LOW,
+            STANDARD_CASHBACK_LOW, SILVER_CASHBACK_LOW, GOLD_CASHBACK_LOW);
 
     /**
      * Calculates cashback based on the transaction amount, account type, and total spending.
      *
-     * @param amount the transaction amount (must be positive).
+     * @param amount the transaction amount in RON (must be positive).
      * @param account the account associated with the transaction.
      * @param merchantCategory the merchant category of the transaction.
      * @return the cashback amount for the transaction.
      * @throws IllegalArgumentException if the account is null.
      */
     @Override
-    public double calculateCashback(final double amount,
+    public double calculateCashback(final Money amount,
                                     final Account account,
                                     final String merchantCategory) {
         if (account == null) {
             throw new IllegalArgumentException("Account is null");
         }
 
-        account.addToTotalSpent(amount); // Update total spending
-        double totalSpent = account.getTotalSpent();
+        Money totalSpent = account.getCashbackLedger().addSpent(amount);
         double cashbackRate = 0.0;
 
-        if (totalSpent >= HIGH_THRESHOLD) {
-            cashbackRate = account.getPlanType().equals("gold")
-                    ? GOLD_CASHBACK_HIGH
-                    : STANDARD_CASHBACK_HIGH;
-        } else if (totalSpent >= MID_THRESHOLD) {
-            cashbackRate = account.getPlanType().equals("gold")
-                    ? GOLD_CASHBACK_MID
-                    : STANDARD_CASHBACK_MID;
-        } else if (totalSpent >= LOW_THRESHOLD) {
-            cashbackRate = spendingThresholds.getOrDefault(account.getPlanType(), 0.0);
+        int plan = account.getPlanType().ordinal();
+
+        if (totalSpent.compareTo(HIGH_THRESHOLD) >= 0) {
+            cashbackRate = HIGH_RATES[plan];
+        } else if (totalSpent.compareTo(MID_THRESHOLD) >= 0) {
+            cashbackRate = MID_RATES[plan];
+        } else if (totalSpent.compareTo(LOW_THRESHOLD) >= 0) {
+            cashbackRate = LOW_RATES[plan];
         }
 
         return cashbackRate;
     }
+
+    /**
+     * Builds a table of cashback rates indexed by plan ordinal.
+     *
+     * @param standard the rate for the standard plan.
+     * @param student  the rate for the student plan.
+     * @param silver   the rate for the silver plan.
+     * @param gold     the rate for the gold plan.
+     * @return the rates, indexed by plan ordinal.
+     */
+    private static double[] ratesByPlan(final double standard, final double student,
+                                        final double silver, final double gold) {
+        double[] rates = new double[PlanType.values().length];
+        rates[PlanType.STANDARD.ordinal()] = standard;
+        rates[PlanType.STUDENT.ordinal()] = student;
+        rates[PlanType.SILVER.ordinal()] = silver;
+        rates[PlanType.GOLD.ordinal()] = gold;
+        return rates;
+    }
 }
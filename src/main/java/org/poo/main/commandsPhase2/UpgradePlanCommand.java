@@ -1,13 +1,14 @@
 package org.poo.main.commandsPhase2;
 
 import org.poo.main.CurrencyConverter;
+import org.poo.main.Money;
+import org.poo.main.PlanType;
 import org.poo.main.Transaction;
 import org.poo.main.User;
 import org.poo.main.accounts.Account;
+import org.poo.main.accounts.AccountRegistry;
 import org.poo.main.commands.Command;
 
-import java.util.List;
-
 /**
  * Command for upgrading a user's account plan.
  * Ensures proper validation, fee calculation, and transaction logging.
@@ -17,11 +18,12 @@ public final class UpgradePlanCommand implements Command {
     private static final double STANDARD_TO_SILVER_FEE = 100.0;
     private static final double STANDARD_TO_GOLD_FEE = 350.0;
     private static final double SILVER_TO_GOLD_FEE = 250.0;
+    private static final double[][] UPGRADE_FEES = upgradeFees();
 
     private final String newPlanType;
     private final String accountIBAN;
     private final int timestamp;
-    private final List<User> users;
+    private final AccountRegistry accountRegistry;
     private final CurrencyConverter currencyConverter;
 
     /**
@@ -30,18 +32,18 @@ public final class UpgradePlanCommand implements Command {
      * @param newPlanType       the new plan type to upgrade to.
      * @param accountIBAN       the account's IBAN.
      * @param timestamp         the transaction timestamp.
-     * @param users             the list of users.
+     * @param accountRegistry   the registry used to resolve the account.
      * @param currencyConverter the currency converter for fee calculation.
      */
     public UpgradePlanCommand(final String newPlanType,
                               final String accountIBAN,
                               final int timestamp,
-                              final List<User> users,
+                              final AccountRegistry accountRegistry,
                               final CurrencyConverter currencyConverter) {
         this.newPlanType = newPlanType;
         this.accountIBAN = accountIBAN;
         this.timestamp = timestamp;
-        this.users = users;
+        this.accountRegistry = accountRegistry;
         this.currencyConverter = currencyConverter;
     }
 
@@ -52,53 +54,34 @@ public final class UpgradePlanCommand implements Command {
      */
     @Override
     public void execute() {
-        User user = null;
-        Account account = null;
-
-        for (User u : users) {
-            for (Account acc : u.getAccounts()) {
-                if (acc.getIBAN().equals(accountIBAN)) {
-                    user = u;
-                    account = acc;
-                    break;
-                }
-            }
-        }
-        if (user == null || account == null) {
+        Account account = accountRegistry.getAccount(accountIBAN);
+        if (account == null) {
             throw new IllegalArgumentException("Account not found");
         }
+        User user = account.getOwner();
 
-        if (user.getPlanType().equals(newPlanType)) {
-            throw new IllegalArgumentException("The user already has the " + newPlanType + " plan.");
-        }
+        PlanType currentPlan = user.getPlanType();
+        PlanType newPlan = PlanType.find(newPlanType);
 
-        List<String> plans = List.of("standard", "student", "silver", "gold");
-        int currentPlanIndex = plans.indexOf(user.getPlanType());
-        int newPlanIndex = plans.indexOf(newPlanType);
+        if (currentPlan == newPlan) {
+            throw new IllegalArgumentException("The user already has the "
+                    + newPlanType + " plan.");
+        }
 
-        if (newPlanIndex < currentPlanIndex) {
+        if (newPlan == null || newPlan.ordinal() < currentPlan.ordinal()) {
             throw new IllegalArgumentException("You cannot downgrade your plan.");
         }
 
-        double fee = 0.0;
-        if (user.getPlanType().equals("standard") || user.getPlanType().equals("student")) {
-            if (newPlanType.equals("silver")) {
-                fee = STANDARD_TO_SILVER_FEE;
-            } else if (newPlanType.equals("gold")) {
-                fee = STANDARD_TO_GOLD_FEE;
-            }
-        } else if (user.getPlanType().equals("silver") && newPlanType.equals("gold")) {
-            fee = SILVER_TO_GOLD_FEE;
-        }
+        double fee = UPGRADE_FEES[currentPlan.ordinal()][newPlan.ordinal()];
 
-        double convertedFee = currencyConverter.convert(fee, "RON", account.getCurrency());
+        Money convertedFee =
+                currencyConverter.convert(Money.of(fee, "RON"), account.getCurrency());
 
-        if (account.getBalance() < convertedFee) {
+        if (!account.tryDebit(convertedFee)) {
             throw new IllegalArgumentException("Insufficient funds");
         }
 
-        account.setBalance(account.getBalance() - convertedFee);
-        user.upgradePlanType(newPlanType);
+        user.upgradePlanType(newPlan);
         Transaction transaction3 = Transaction.upgradePlanTransaction(
                 accountIBAN,
                 "Upgrade plan",
@@ -107,4 +90,21 @@ public final class UpgradePlanCommand implements Command {
         );
         account.getOwner().addTransaction(transaction3);
     }
+
+    /**
+     * Builds the upgrade fee matrix, in RON, indexed by the ordinals of the current
+     * and the new plan. Upgrades not listed are free.
+     *
+     * @return the upgrade fees.
+     */
+    private static double[][] upgradeFees() {
+        int plans = PlanType.values().length;
+        double[][] fees = new double[plans][plans];
+        for (PlanType from : new PlanType[] {PlanType.STANDARD, PlanType.STUDENT}) {
+            fees[from.ordinal()][PlanType.SILVER.ordinal()] = STANDARD_TO_SILVER_FEE;
+            fees[from.ordinal()][PlanType.GOLD.ordinal()] = STANDARD_TO_GOLD_FEE;
+        }
+        fees[PlanType.SILVER.ordinal()][PlanType.GOLD.ordinal()] = SILVER_TO_GOLD_FEE;
+        return fees;
+    }
 }
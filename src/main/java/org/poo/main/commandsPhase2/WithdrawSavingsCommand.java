@@ -1,14 +1,14 @@
 package org.poo.main.commandsPhase2;
 
 import org.poo.main.CurrencyConverter;
+import org.poo.main.Money;
 import org.poo.main.Transaction;
 import org.poo.main.User;
 import org.poo.main.accounts.Account;
+import org.poo.main.accounts.AccountRegistry;
 import org.poo.main.accounts.SavingsAccount;
 import org.poo.main.commands.Command;
 
-import java.util.List;
-
 /**
  * Command to withdraw money from a savings account into a standard account.
  * Ensures proper validation of age, account type, and sufficient funds.
@@ -21,7 +21,7 @@ public final class WithdrawSavingsCommand implements Command {
     private final double amount;
     private final String currency;
     private final int timestamp;
-    private final List<User> users;
+    private final AccountRegistry accountRegistry;
     private final CurrencyConverter currencyConverter;
 
     /**
@@ -31,20 +31,20 @@ public final class WithdrawSavingsCommand implements Command {
      * @param amount            the amount to withdraw.
      * @param currency          the currency for the withdrawal.
      * @param timestamp         the timestamp of the transaction.
-     * @param users             the list of users.
+     * @param accountRegistry   the registry used to resolve the account.
      * @param currencyConverter the currency converter utility.
      */
     public WithdrawSavingsCommand(final String accountIBAN,
                                   final double amount,
                                   final String currency,
                                   final int timestamp,
-                                  final List<User> users,
+                                  final AccountRegistry accountRegistry,
                                   final CurrencyConverter currencyConverter) {
         this.accountIBAN = accountIBAN;
         this.amount = amount;
         this.currency = currency;
         this.timestamp = timestamp;
-        this.users = users;
+        this.accountRegistry = accountRegistry;
         this.currencyConverter = currencyConverter;
     }
 
@@ -56,27 +56,16 @@ public final class WithdrawSavingsCommand implements Command {
      */
     @Override
     public void execute() {
-        User user = null;
-        SavingsAccount savingsAccount = null;
         Account targetAccount = null;
 
-        for (User u : users) {
-            for (Account acc : u.getAccounts()) {
-                if (acc.getIBAN().equals(accountIBAN)) {
-                    if (acc instanceof SavingsAccount) {
-                        savingsAccount = (SavingsAccount) acc;
-                        user = u;
-                        break;
-                    } else {
-                        throw new IllegalArgumentException("Account is not of type savings.");
-                    }
-                }
-            }
-        }
-
-        if (savingsAccount == null) {
+        Account account = accountRegistry.getAccount(accountIBAN);
+        if (account == null) {
             throw new IllegalArgumentException("Account not found.");
         }
+        if (!(account instanceof SavingsAccount savingsAccount)) {
+            throw new IllegalArgumentException("Account is not of type savings.");
+        }
+        User user = savingsAccount.getOwner();
 
         int age = user.calculateAge();
         if (age < MINIMUM_AGE) {
@@ -109,13 +98,12 @@ public final class WithdrawSavingsCommand implements Command {
             return;
         }
 
-        double convertedAmount = currencyConverter.
-                convert(amount, currency, savingsAccount.getCurrency());
-        if (savingsAccount.getBalance() < convertedAmount) {
+        Money withdrawal = Money.of(amount, currency);
+        Money convertedAmount = currencyConverter.
+                convert(withdrawal, savingsAccount.getCurrency());
+        if (!Account.transfer(savingsAccount, convertedAmount, targetAccount, withdrawal)) {
             throw new IllegalArgumentException("Insufficient funds.");
         }
-        savingsAccount.setBalance(savingsAccount.getBalance() - convertedAmount);
-        targetAccount.setBalance(targetAccount.getBalance() + convertedAmount);
 
         Transaction transaction = Transaction.addAccountTransaction(
                 timestamp,
@@ -0,0 +1,170 @@
+package org.poo.main.commissions;
+
+import org.poo.main.CurrencyConverter;
+import org.poo.main.Money;
+import org.poo.main.PlanType;
+import org.poo.main.RateTable;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Computes transaction commissions from a fee schedule built once per plan.
+ * <ul>
+ *     <li>Standard: 0.2% of every transaction.</li>
+ *     <li>Student: no commission.</li>
+ *     <li>Silver: 0.1% of transactions worth at least 500 RON.</li>
+ *     <li>Gold: no commission.</li>
+ * </ul>
+ * A plan's minimum is converted into each transaction currency once per rate table
+ * and cached, rather than converting every transaction to RON.
+ * The engine is immutable apart from that cache and is safe to share across threads.
+ */
+public final class CommissionEngine {
+    private static final String MINIMUM_CURRENCY = "RON";
+    private static final double STANDARD_RATE = 0.002;
+    private static final double SILVER_RATE = 0.001;
+    private static final double SILVER_MINIMUM = 500.0;
+    private static final CommissionEngine INSTANCE = new CommissionEngine(defaultSchedule());
+
+    private final FeeRule[] schedule;
+
+    /**
+     * Constructs a CommissionEngine.
+     *
+     * @param fees the fee rule of every plan
+     * @throws IllegalArgumentException if a plan has no fee rule
+     */
+    private CommissionEngine(final Map<PlanType, FeeRule> fees) {
+        this.schedule = new FeeRule[PlanType.values().length];
+        for (final PlanType plan : PlanType.values()) {
+            final FeeRule rule = fees.get(plan);
+            if (rule == null) {
+                throw new IllegalArgumentException("No fee rule for plan: " + plan.getName());
+            }
+            schedule[plan.ordinal()] = rule;
+        }
+    }
+
+    /**
+     * Gets the shared commission engine.
+     *
+     * @return the commission engine
+     */
+    public static CommissionEngine getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Calculates the commission for a transaction.
+     *
+     * @param plan              the plan of the account
+     * @param amount            the transaction amount, in its currency
+     * @param currencyConverter the converter used for the plan's minimum amount
+     * @return the commission, in the currency of the amount
+     */
+    public Money commission(final PlanType plan, final Money amount,
+                            final CurrencyConverter currencyConverter) {
+        final FeeRule rule = schedule[plan.ordinal()];
+        if (rule.rate() == 0) {
+            return Money.zero(amount.getCurrency());
+        }
+        if (rule.hasMinimum()
+                && amount.compareTo(rule.minimumIn(amount.getCurrency(), currencyConverter)) < 0) {
+            return Money.zero(amount.getCurrency());
+        }
+        return amount.times(rule.rate());
+    }
+
+    /**
+     * Builds the fee schedule of the bank's plans.
+     *
+     * @return the fee rule of every plan
+     */
+    private static Map<PlanType, FeeRule> defaultSchedule() {
+        final Map<PlanType, FeeRule> fees = new EnumMap<>(PlanType.class);
+        final Money noMinimum = Money.zero(MINIMUM_CURRENCY);
+        fees.put(PlanType.STANDARD, new FeeRule(STANDARD_RATE, noMinimum));
+        fees.put(PlanType.STUDENT, new FeeRule(0.0, noMinimum));
+        fees.put(PlanType.SILVER,
+                new FeeRule(SILVER_RATE, Money.of(SILVER_MINIMUM, MINIMUM_CURRENCY)));
+        fees.put(PlanType.GOLD, new FeeRule(0.0, noMinimum));
+        return fees;
+    }
+
+    /**
+     * The commission of a plan: a rate applied to transactions worth at least a minimum.
+     * The minimum is cached per currency for the rate table it was converted with.
+     */
+    private static final class FeeRule {
+        private final double rate;
+        private final Money minimum;
+        private volatile MinimumCache cache = new MinimumCache(null);
+
+        /**
+         * The minimum converted into each currency, valid for one rate table.
+         *
+         * @param rateTable  the rate table the amounts were converted with
+         * @param byCurrency the minimum in each currency
+         */
+        private record MinimumCache(RateTable rateTable, Map<String, Money> byCurrency) {
+            MinimumCache(final RateTable rateTable) {
+                this(rateTable, new ConcurrentHashMap<>());
+            }
+        }
+
+        /**
+         * Constructs a FeeRule.
+         *
+         * @param rate    the commission rate
+         * @param minimum the smallest transaction the rate applies to
+         */
+        FeeRule(final double rate, final Money minimum) {
+            this.rate = rate;
+            this.minimum = minimum;
+        }
+
+        /**
+         * Gets the commission rate.
+         *
+         * @return the commission rate
+         */
+        double rate() {
+            return rate;
+        }
+
+        /**
+         * Checks whether the rate only applies from a minimum amount.
+         *
+         * @return true if the rule has a minimum
+         */
+        boolean hasMinimum() {
+            return !minimum.isZero();
+        }
+
+        /**
+         * Gets the minimum in the given currency, converting and caching it on first use.
+         *
+         * @param currency          the transaction currency
+         * @param currencyConverter the converter to use
+         * @return the minimum, in that currency
+         */
+        Money minimumIn(final String currency, final CurrencyConverter currencyConverter) {
+            if (minimum.isIn(currency)) {
+                return minimum;
+            }
+            final RateTable rateTable = currencyConverter.getRateTable();
+            if (rateTable == null) {
+                return currencyConverter.convert(minimum, currency);
+            }
+            MinimumCache current = cache;
+            if (current.rateTable() != rateTable) {
+                current = new MinimumCache(rateTable);
+                cache = current;
+            }
+            return current.byCurrency().computeIfAbsent(currency, key -> minimum.convert(
+                    rateTable.getRate(minimum.getCurrency(), key), key));
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package org.poo.main.output;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * The serialization objects shared by the whole bank: one mapper, its node factory and
+ * its writers. A mapper is expensive to build but safe to share between threads once
+ * configured, so every input, output and JSON node goes through this one.
+ */
+public final class JsonContext {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final JsonNodeFactory NODES = MAPPER.getNodeFactory();
+    private static final ObjectWriter PRETTY_WRITER = MAPPER.writerWithDefaultPrettyPrinter();
+    private static final ObjectWriter COMPACT_WRITER = MAPPER.writer();
+
+    /**
+     * for coding style
+     */
+    private JsonContext() {
+    }
+
+    /**
+     * Gets the shared mapper.
+     *
+     * @return the mapper.
+     */
+    public static ObjectMapper mapper() {
+        return MAPPER;
+    }
+
+    /**
+     * Gets the shared writer for a layout.
+     *
+     * @param compact whether to leave out the pretty printing.
+     * @return the writer.
+     */
+    public static ObjectWriter writer(final boolean compact) {
+        return compact ? COMPACT_WRITER : PRETTY_WRITER;
+    }
+
+    /**
+     * Creates an empty JSON object.
+     *
+     * @return the object.
+     */
+    public static ObjectNode objectNode() {
+        return NODES.objectNode();
+    }
+
+    /**
+     * Creates an empty JSON array.
+     *
+     * @return the array.
+     */
+    public static ArrayNode arrayNode() {
+        return NODES.arrayNode();
+    }
+}
@@ -0,0 +1,60 @@
+package org.poo.main.output;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes the results of the commands to a file as one JSON array, streaming each
+ * result through a generator as soon as it arrives instead of keeping the whole array
+ * in memory. The pretty layout is byte for byte what writing the complete array with
+ * the default pretty printer gives; the compact layout leaves out all whitespace.
+ */
+public final class JsonFileSink implements OutputSink {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final JsonGenerator generator;
+
+    /**
+     * Opens a JsonFileSink, replacing the contents of the file.
+     *
+     * @param path    the output file.
+     * @param compact whether to leave out the pretty printing.
+     * @throws IOException if the file cannot be opened.
+     */
+    public JsonFileSink(final Path path, final boolean compact) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.generator = JsonContext.writer(compact).createGenerator(
+                new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE));
+        generator.writeStartArray();
+    }
+
+    /**
+     * Writes the result of a command as the next element of the array.
+     *
+     * @param result the result.
+     * @throws IOException if the result cannot be written.
+     */
+    @Override
+    public void write(final JsonNode result) throws IOException {
+        generator.writeTree(result);
+    }
+
+    /**
+     * Ends the array and closes the file.
+     *
+     * @throws IOException if the file cannot be written.
+     */
+    @Override
+    public void close() throws IOException {
+        generator.writeEndArray();
+        generator.close();
+    }
+}
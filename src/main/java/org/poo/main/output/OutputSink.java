@@ -0,0 +1,29 @@
+package org.poo.main.output;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Receives the results of the commands, one at a time, in the order they are produced.
+ * Closing the sink completes the output.
+ */
+public interface OutputSink extends Closeable {
+    /**
+     * Writes the result of a command.
+     *
+     * @param result the result, complete when it is written.
+     * @throws IOException if the result cannot be written.
+     */
+    void write(JsonNode result) throws IOException;
+
+    /**
+     * Completes the output. Sinks that keep nothing open do nothing.
+     *
+     * @throws IOException if the output cannot be completed.
+     */
+    @Override
+    default void close() throws IOException {
+    }
+}
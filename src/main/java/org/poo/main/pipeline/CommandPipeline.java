@@ -0,0 +1,197 @@
+package org.poo.main.pipeline;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import org.poo.fileio.CommandInput;
+import org.poo.fileio.StreamingInput;
+import org.poo.main.BankContext;
+import org.poo.main.output.JsonContext;
+import org.poo.main.output.JsonFileSink;
+import org.poo.main.output.OutputSink;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Replays an input file in three stages, each on its own thread, connected by ring
+ * buffers: a reader thread parses the commands, the calling thread runs them one by one
+ * against the bank, and a writer thread serializes their results to the output file.
+ * The bank is only ever touched by the calling thread, and the results travel through
+ * the buffers in command order, so the output is the same as that of the sequential
+ * loop in {@link BankContext#replay}.
+ * If a stage fails, the other two are interrupted and the failure is rethrown.
+ */
+public final class CommandPipeline {
+    /** The default number of slots of each ring buffer. */
+    public static final int DEFAULT_BUFFER_SIZE = 1 << 12;
+
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private final RingBuffer<CommandInput> commands;
+    private final RingBuffer<ArrayNode> results;
+    private Thread[] stages = new Thread[0];
+
+    /**
+     * Constructs a CommandPipeline.
+     *
+     * @param bufferSize the number of slots of each ring buffer, a power of two.
+     */
+    private CommandPipeline(final int bufferSize) {
+        this.commands = new RingBuffer<>(bufferSize);
+        this.results = new RingBuffer<>(bufferSize);
+    }
+
+    /**
+     * Runs every command of an input file through the pipeline and writes their results
+     * to an output file.
+     *
+     * @param inputFile  the input file.
+     * @param outputPath the output file.
+     * @param compact    whether to write the output without pretty printing.
+     * @param bufferSize the number of slots of each ring buffer, a power of two.
+     * @throws IOException if a file cannot be read or written.
+     */
+    public static void replay(final File inputFile, final Path outputPath,
+                              final boolean compact, final int bufferSize) throws IOException {
+        try (StreamingInput input = new StreamingInput(JsonContext.mapper(), inputFile);
+             OutputSink sink = new JsonFileSink(outputPath, compact)) {
+            new CommandPipeline(bufferSize).run(input, new BankContext(input, sink));
+        }
+    }
+
+    /**
+     * Runs the three stages until every result is written.
+     *
+     * @param input   the input, past its other sections.
+     * @param context the bank the commands run against.
+     * @throws IOException if a stage fails.
+     */
+    private void run(final StreamingInput input, final BankContext context)
+            throws IOException {
+        Thread reader = new Thread(() -> read(input), "pipeline-reader");
+        Thread writer = new Thread(() -> write(context), "pipeline-writer");
+        stages = new Thread[] {reader, Thread.currentThread(), writer};
+        reader.start();
+        writer.start();
+        try {
+            execute(context);
+        } catch (Throwable e) {
+            fail(e);
+        }
+        boolean interrupted = Thread.interrupted();
+        interrupted |= await(reader);
+        interrupted |= await(writer);
+        if (interrupted && failure.get() == null) {
+            Thread.currentThread().interrupt();
+        }
+        rethrow();
+    }
+
+    /**
+     * Waits for a stage to finish. A failing stage interrupts the others only to wake
+     * them up, so interrupts do not stop the wait.
+     *
+     * @param stage the thread of the stage.
+     * @return whether the calling thread was interrupted while waiting.
+     */
+    private static boolean await(final Thread stage) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                stage.join();
+                return interrupted;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+    }
+
+    /**
+     * The reader stage: parses the commands into the first buffer.
+     *
+     * @param input the input, past its other sections.
+     */
+    private void read(final StreamingInput input) {
+        try {
+            for (CommandInput commandInput = input.nextCommand(); commandInput != null;
+                    commandInput = input.nextCommand()) {
+                commands.put(commandInput);
+            }
+            commands.close();
+        } catch (Throwable e) {
+            fail(e);
+        }
+    }
+
+    /**
+     * The business-logic stage: runs the commands of the first buffer and passes their
+     * results on to the second.
+     *
+     * @param context the bank the commands run against.
+     * @throws InterruptedException if another stage failed.
+     */
+    private void execute(final BankContext context) throws InterruptedException {
+        for (CommandInput commandInput = commands.take(); commandInput != null;
+                commandInput = commands.take()) {
+            ArrayNode commandResults = JsonContext.arrayNode();
+            context.prepare(commandInput, commandResults).run();
+            results.put(commandResults);
+        }
+        results.close();
+    }
+
+    /**
+     * The writer stage: writes the results of the second buffer to the output.
+     *
+     * @param context the bank whose sink the results go to.
+     */
+    private void write(final BankContext context) {
+        try {
+            for (ArrayNode commandResults = results.take(); commandResults != null;
+                    commandResults = results.take()) {
+                context.write(commandResults);
+            }
+        } catch (Throwable e) {
+            fail(e);
+        }
+    }
+
+    /**
+     * Records the first failure of a stage and interrupts the other stages.
+     *
+     * @param cause the failure.
+     */
+    private void fail(final Throwable cause) {
+        failure.compareAndSet(null, cause);
+        for (Thread stage : stages) {
+            if (stage != Thread.currentThread()) {
+                stage.interrupt();
+            }
+        }
+    }
+
+    /**
+     * Rethrows the first failure of a stage, if any.
+     *
+     * @throws IOException if a stage failed.
+     */
+    private void rethrow() throws IOException {
+        Throwable cause = failure.get();
+        if (cause == null) {
+            return;
+        }
+        if (cause instanceof IOException ioException) {
+            throw ioException;
+        }
+        if (cause instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        InterruptedIOException interrupted = new InterruptedIOException("Pipeline interrupted");
+        interrupted.initCause(cause);
+        throw interrupted;
+    }
+}
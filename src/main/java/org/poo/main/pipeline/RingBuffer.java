@@ -0,0 +1,102 @@
+package org.poo.main.pipeline;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded queue between exactly one producer thread and one consumer thread, in the
+ * style of the LMAX disruptor. The slots are one preallocated array; each side owns
+ * its own sequence and only reads the other's, so handing over an item takes no lock.
+ * A side that has to wait spins, to keep the hand-over latency low, and yields after a
+ * while so a starved pipeline does not hold a core forever.
+ *
+ * @param <T> the type of the items
+ */
+public final class RingBuffer<T> {
+    private static final int SPINS_BEFORE_YIELD = 1 << 10;
+
+    private final Object[] slots;
+    private final int mask;
+    private final AtomicLong readSequence = new AtomicLong();
+    private final AtomicLong writeSequence = new AtomicLong();
+    private volatile boolean closed;
+
+    /**
+     * Constructs an empty RingBuffer.
+     *
+     * @param capacity the number of slots, a power of two.
+     * @throws IllegalArgumentException if the capacity is not a positive power of two.
+     */
+    public RingBuffer(final int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+        this.slots = new Object[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Adds an item, waiting for a free slot. Only the producer thread may call this.
+     *
+     * @param item the item.
+     * @throws InterruptedException if the producer is interrupted while waiting.
+     */
+    public void put(final T item) throws InterruptedException {
+        long sequence = writeSequence.get();
+        int spins = 0;
+        while (sequence - readSequence.get() == slots.length) {
+            spins = idle(spins);
+        }
+        slots[(int) sequence & mask] = item;
+        writeSequence.lazySet(sequence + 1);
+    }
+
+    /**
+     * Removes the oldest item, waiting for one. Only the consumer thread may call this.
+     *
+     * @return the item, or null once the buffer is closed and every item was taken.
+     * @throws InterruptedException if the consumer is interrupted while waiting.
+     */
+    @SuppressWarnings("unchecked")
+    public T take() throws InterruptedException {
+        long sequence = readSequence.get();
+        int spins = 0;
+        while (sequence == writeSequence.get()) {
+            if (closed && sequence == writeSequence.get()) {
+                return null;
+            }
+            spins = idle(spins);
+        }
+        int slot = (int) sequence & mask;
+        T item = (T) slots[slot];
+        slots[slot] = null;
+        readSequence.lazySet(sequence + 1);
+        return item;
+    }
+
+    /**
+     * Marks that no more items will be added. Only the producer thread may call this,
+     * after its last {@link #put}.
+     */
+    public void close() {
+        closed = true;
+    }
+
+    /**
+     * Waits a little.
+     *
+     * @param spins how long the caller has waited so far.
+     * @return the new waiting count.
+     * @throws InterruptedException if the caller is interrupted.
+     */
+    private static int idle(final int spins) throws InterruptedException {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedException();
+        }
+        if (spins < SPINS_BEFORE_YIELD) {
+            Thread.onSpinWait();
+            return spins + 1;
+        }
+        Thread.yield();
+        return spins;
+    }
+}
@@ -0,0 +1,229 @@
+package org.poo.main.server;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.poo.fileio.CommandInput;
+import org.poo.fileio.StreamingInput;
+import org.poo.main.BankContext;
+import org.poo.main.output.JsonContext;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Serves one bank over a local socket, for as long as the process runs.
+ * Clients send commands as newline-delimited JSON, one {@link CommandInput} per line,
+ * and get one line back per command: the JSON array of the entries that command adds
+ * to the batch output, which is empty for most commands. A line that is not a command,
+ * or whose command could not be run, gets an object holding an "error" message instead.
+ * Every connection is served by its own virtual thread, but all commands run one at a
+ * time, in the order they arrive, on a single thread that alone touches the bank.
+ */
+public final class BankServer implements Closeable {
+    private final BankContext context;
+    private final ServerSocketChannel serverChannel;
+    private final Path socketPath;
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private final ExecutorService bank = Executors.newSingleThreadExecutor();
+    private final ExecutorService connections = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Opens a BankServer. It accepts connections once {@link #serve()} is called.
+     *
+     * @param context the bank to serve.
+     * @param address a loopback TCP address, or a Unix-domain socket path.
+     * @throws IOException if the address cannot be bound.
+     */
+    public BankServer(final BankContext context, final SocketAddress address)
+            throws IOException {
+        this.context = context;
+        this.socketPath = address instanceof UnixDomainSocketAddress unixAddress
+                ? unixAddress.getPath()
+                : null;
+        this.serverChannel = socketPath != null
+                ? ServerSocketChannel.open(StandardProtocolFamily.UNIX)
+                : ServerSocketChannel.open();
+        try {
+            serverChannel.bind(address);
+        } catch (IOException | RuntimeException e) {
+            try {
+                serverChannel.close();
+            } catch (IOException closeFailure) {
+                e.addSuppressed(closeFailure);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Starts a server over the users, merchants and exchange rates of an input file;
+     * the commands of the file are ignored.
+     *
+     * @param args the input file, then a TCP port on the loopback interface or the path
+     *             of a Unix-domain socket
+     * @throws IOException if the file cannot be read or the address cannot be bound
+     */
+    public static void main(final String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: BankServer <input file> <port | path>");
+        }
+        BankContext context;
+        try (StreamingInput input = new StreamingInput(JsonContext.mapper(), new File(args[0]))) {
+            context = new BankContext(input, result -> { });
+        }
+        SocketAddress address = args[1].chars().allMatch(Character::isDigit)
+                ? new InetSocketAddress(InetAddress.getLoopbackAddress(),
+                        Integer.parseInt(args[1]))
+                : UnixDomainSocketAddress.of(args[1]);
+        try (BankServer server = new BankServer(context, address)) {
+            server.serve();
+        }
+    }
+
+    /**
+     * Gets the address the server listens on, with the port chosen if it was 0.
+     *
+     * @return the address.
+     * @throws IOException if the server is closed.
+     */
+    public SocketAddress getAddress() throws IOException {
+        return serverChannel.getLocalAddress();
+    }
+
+    /**
+     * Accepts connections until the server is closed.
+     *
+     * @throws IOException if accepting fails for another reason than the server closing.
+     */
+    public void serve() throws IOException {
+        while (true) {
+            SocketChannel channel;
+            try {
+                channel = serverChannel.accept();
+            } catch (ClosedChannelException e) {
+                return;
+            }
+            connections.execute(() -> handle(channel));
+        }
+    }
+
+    /**
+     * Serves a connection until the client closes it.
+     *
+     * @param channel the connection.
+     */
+    private void handle(final SocketChannel channel) {
+        try (channel;
+             BufferedReader reader = new BufferedReader(new InputStreamReader(
+                     Channels.newInputStream(channel), StandardCharsets.UTF_8));
+             Writer writer = new BufferedWriter(new OutputStreamWriter(
+                     Channels.newOutputStream(channel), StandardCharsets.UTF_8))) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                writer.write(respond(line));
+                writer.write('\n');
+                writer.flush();
+            }
+        } catch (IOException e) {
+            // The client went away, or the server closed; nothing is left to answer.
+        }
+    }
+
+    /**
+     * Runs the command of a request line and renders its response.
+     *
+     * @param line the request line.
+     * @return the response line, without its line break.
+     * @throws IOException if the response cannot be rendered, or the server is closed
+     *                     while the command runs.
+     */
+    private String respond(final String line) throws IOException {
+        CommandInput commandInput;
+        try {
+            commandInput = JsonContext.mapper().readValue(line, CommandInput.class);
+        } catch (JsonProcessingException e) {
+            return error("Invalid command: " + e.getOriginalMessage());
+        }
+        if (commandInput == null || commandInput.getCommand() == null) {
+            return error("Invalid command: missing \"command\"");
+        }
+        Future<ArrayNode> results;
+        try {
+            results = bank.submit(() -> {
+                ArrayNode commandResults = JsonContext.arrayNode();
+                context.prepare(commandInput, commandResults).run();
+                return commandResults;
+            });
+        } catch (RejectedExecutionException e) {
+            return error("Server is shutting down");
+        }
+        try {
+            return JsonContext.writer(true).writeValueAsString(results.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while running a command");
+        } catch (ExecutionException e) {
+            return error("Command failed: " + e.getCause());
+        }
+    }
+
+    /**
+     * Renders an error response.
+     *
+     * @param message the error message.
+     * @return the response line, without its line break.
+     * @throws IOException if the response cannot be rendered.
+     */
+    private static String error(final String message) throws IOException {
+        ObjectNode response = JsonContext.objectNode();
+        response.put("error", message);
+        return JsonContext.writer(true).writeValueAsString(response);
+    }
+
+    /**
+     * Stops accepting connections, closes the open ones and stops the bank thread once
+     * the commands already received have run. Closing a closed server does nothing.
+     *
+     * @throws IOException if the server socket cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        serverChannel.close();
+        connections.shutdownNow();
+        bank.shutdown();
+        if (socketPath != null) {
+            Files.deleteIfExists(socketPath);
+        }
+    }
+}
@@ -2,6 +2,8 @@ package org.poo.main.splitpayments2;
 
 import org.poo.main.CurrencyConverter;
 import org.poo.main.User;
+import org.poo.main.UserDirectory;
+import org.poo.main.accounts.AccountRegistry;
 import org.poo.main.commands.Command;
 import org.poo.main.commands.SplitPaymentCommand;
 
@@ -16,8 +18,9 @@ public final class AcceptSplitPaymentCommand implements Command {
     private final String email;
     private final int timestamp;
     private final List<SplitPaymentStatus> activeTransactions;
-    private final List<User> users;
+    private final UserDirectory users;
     private final CurrencyConverter currencyConverter;
+    private final AccountRegistry accountRegistry;
 
     /**
      * Constructs an AcceptSplitPaymentCommand.
@@ -25,19 +28,22 @@ public final class AcceptSplitPaymentCommand implements Command {
      * @param email              the email of the user accepting the payment.
      * @param timestamp          the current timestamp.
      * @param activeTransactions the list of active split payment transactions.
-     * @param users              the list of users involved.
+     * @param users              the directory of users.
      * @param currencyConverter  the utility for currency conversion.
+     * @param accountRegistry    the registry used to resolve the involved accounts.
      */
     public AcceptSplitPaymentCommand(final String email,
                                      final int timestamp,
                                      final List<SplitPaymentStatus> activeTransactions,
-                                     final List<User> users,
-                                     final CurrencyConverter currencyConverter) {
+                                     final UserDirectory users,
+                                     final CurrencyConverter currencyConverter,
+                                     final AccountRegistry accountRegistry) {
         this.email = email;
         this.timestamp = timestamp;
         this.activeTransactions = activeTransactions;
         this.users = users;
         this.currencyConverter = currencyConverter;
+        this.accountRegistry = accountRegistry;
     }
 
     /**
@@ -48,7 +54,7 @@ public final class AcceptSplitPaymentCommand implements Command {
      */
     @Override
     public void execute() {
-        for (User user : users) {
+        for (User user : users.getAll()) {
             SplitPaymentStatus currentTransaction = user.peekTransaction();
 
             if (currentTransaction != null
@@ -59,11 +65,10 @@ public final class AcceptSplitPaymentCommand implements Command {
                     new SplitPaymentCommand(
                             currentTransaction.getTimestamp(),
                             currentTransaction.getAmount(),
-                            currentTransaction.getCurrency(),
                             currentTransaction.getSplitPaymentType(),
                             currentTransaction.getAccountIbans(),
                             currentTransaction.getAmountForUsers(),
-                            users,
+                            accountRegistry,
                             currencyConverter,
                             currentTransaction
                     ).execute();
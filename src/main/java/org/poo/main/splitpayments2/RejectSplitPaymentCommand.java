@@ -1,6 +1,7 @@
 package org.poo.main.splitpayments2;
 
 import org.poo.main.User;
+import org.poo.main.UserDirectory;
 import org.poo.main.commands.Command;
 
 import java.util.List;
@@ -14,7 +15,7 @@ public final class RejectSplitPaymentCommand implements Command {
     private final String email;
     private final int timestamp;
     private final List<SplitPaymentStatus> activeTransactions;
-    private final List<User> users;
+    private final UserDirectory users;
 
     /**
      * Constructs a RejectSplitPaymentCommand.
@@ -22,12 +23,12 @@ public final class RejectSplitPaymentCommand implements Command {
      * @param email              the email of the user rejecting the payment.
      * @param timestamp          the current timestamp.
      * @param activeTransactions the list of active split payment transactions.
-     * @param users              the list of users involved.
+     * @param users              the directory of users.
      */
     public RejectSplitPaymentCommand(final String email,
                                      final int timestamp,
                                      final List<SplitPaymentStatus> activeTransactions,
-                                     final List<User> users) {
+                                     final UserDirectory users) {
         this.email = email;
         this.timestamp = timestamp;
         this.activeTransactions = activeTransactions;
@@ -62,11 +63,6 @@ public final class RejectSplitPaymentCommand implements Command {
      * @return the user with the matching email or null if not found.
      */
     private User findUserByEmail(final String targetEmail) {
-        for (User user : users) {
-            if (user.getEmail().equals(targetEmail)) {
-                return user;
-            }
-        }
-        return null;
+        return users.findByEmail(targetEmail);
     }
 }
@@ -1,7 +1,8 @@
 package org.poo.main.splitpayments2;
 
 import org.poo.main.CurrencyConverter;
-import org.poo.main.User;
+import org.poo.main.Money;
+import org.poo.main.UserDirectory;
 
 import java.util.HashMap;
 import java.util.List;
@@ -15,13 +16,12 @@ public final class SplitPaymentStatus {
 
     private final String transactionId;
     private final int timestamp;
-    private final double amount;
-    private final String currency;
+    private final Money amount;
     private final String splitPaymentType;
     private final List<String> accountIbans;
-    private final List<Double> amountForUsers;
+    private final List<Money> amountForUsers;
     private final Map<String, Boolean> userStatus;
-    private final List<User> users;
+    private final UserDirectory users;
     private final CurrencyConverter currencyConverter;
     private boolean failed;
 
@@ -31,28 +31,25 @@ public final class SplitPaymentStatus {
      * @param transactionId     the unique transaction ID.
      * @param userEmails        the list of user emails involved in the transaction.
      * @param timestamp         the timestamp of the transaction.
-     * @param amount            the total amount to be split.
-     * @param currency          the currency of the transaction.
+     * @param amount            the total amount to be split, in the transaction currency.
      * @param splitPaymentType  the type of split payment.
      * @param accountIbans      the list of account IBANs.
-     * @param amountForUsers    the list of amounts for each user.
-     * @param users             the list of user objects.
+     * @param amountForUsers    the list of amounts for each user, in the same currency.
+     * @param users             the directory of users.
      * @param currencyConverter the utility for currency conversion.
      */
     public SplitPaymentStatus(final String transactionId,
                               final List<String> userEmails,
                               final int timestamp,
-                              final double amount,
-                              final String currency,
+                              final Money amount,
                               final String splitPaymentType,
                               final List<String> accountIbans,
-                              final List<Double> amountForUsers,
-                              final List<User> users,
+                              final List<Money> amountForUsers,
+                              final UserDirectory users,
                               final CurrencyConverter currencyConverter) {
         this.transactionId = transactionId;
         this.timestamp = timestamp;
         this.amount = amount;
-        this.currency = currency;
         this.splitPaymentType = splitPaymentType;
         this.accountIbans = accountIbans;
         this.amountForUsers = amountForUsers;
@@ -124,7 +121,7 @@ public final class SplitPaymentStatus {
      *
      * @return the transaction amount.
      */
-    public double getAmount() {
+    public Money getAmount() {
         return amount;
     }
 
@@ -134,7 +131,7 @@ public final class SplitPaymentStatus {
      * @return the transaction currency.
      */
     public String getCurrency() {
-        return currency;
+        return amount.getCurrency();
     }
 
     /**
@@ -160,7 +157,7 @@ public final class SplitPaymentStatus {
      *
      * @return the list of amounts.
      */
-    public List<Double> getAmountForUsers() {
+    public List<Money> getAmountForUsers() {
         return amountForUsers;
     }
 
@@ -2,11 +2,12 @@ package org.poo.utils;
 
 import java.util.Random;
 
-public final class Utils {
-    private Utils() {
-        // Checkstyle error free constructor
-    }
-
+/**
+ * Generates the IBANs and card numbers of one run of the bank. Every generator starts
+ * from the same seeds, so a run gets the same numbers no matter which other runs
+ * happen before it or at the same time.
+ */
+public final class IdGenerator {
     private static final int IBAN_SEED = 1;
     private static final int CARD_SEED = 2;
     private static final int DIGIT_BOUND = 10;
@@ -14,16 +15,15 @@ public final class Utils {
     private static final String RO_STR = "RO";
     private static final String POO_STR = "POOB";
 
-
-    private static Random ibanRandom = new Random(IBAN_SEED);
-    private static Random cardRandom = new Random(CARD_SEED);
+    private final Random ibanRandom = new Random(IBAN_SEED);
+    private final Random cardRandom = new Random(CARD_SEED);
 
     /**
-     * Utility method for generating an IBAN code.
+     * Generates the next IBAN code.
      *
      * @return the IBAN as String
      */
-    public static String generateIBAN() {
+    public String generateIBAN() {
         StringBuilder sb = new StringBuilder(RO_STR);
         for (int i = 0; i < RO_STR.length(); i++) {
             sb.append(ibanRandom.nextInt(DIGIT_BOUND));
@@ -38,11 +38,11 @@ public final class Utils {
     }
 
     /**
-     * Utility method for generating a card number.
+     * Generates the next card number.
      *
      * @return the card number as String
      */
-    public static String generateCardNumber() {
+    public String generateCardNumber() {
         StringBuilder sb = new StringBuilder();
         for (int i = 0; i < DIGIT_GENERATION; i++) {
             sb.append(cardRandom.nextInt(DIGIT_BOUND));
@@ -50,12 +50,4 @@ public final class Utils {
 
         return sb.toString();
     }
-
-    /**
-     * Resets the seeds between runs.
-     */
-    public static void resetRandom() {
-        ibanRandom = new Random(IBAN_SEED);
-        cardRandom = new Random(CARD_SEED);
-    }
 }